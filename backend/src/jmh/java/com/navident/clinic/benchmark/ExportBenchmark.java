@@ -0,0 +1,35 @@
+package com.navident.clinic.benchmark;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.util.ExcelUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Streaming appointment export through SXSSF into a discarding stream; the rows are prebuilt so only
+// cell population and workbook serialisation are timed
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private List<Appointment> appointments;
+
+    @Setup
+    public void setup() {
+        appointments = SampleData.list(rows, SampleData::appointment);
+    }
+
+    @Benchmark
+    public void appointmentsToExcel() {
+        ExcelUtil.appointmentsToExcel(appointments.stream(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,89 @@
+package com.navident.clinic.benchmark;
+
+import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.model.FinanceDailyRollup;
+import com.navident.clinic.repository.ClinicFinanceRepositoryCustomImpl;
+import com.navident.clinic.service.impl.FinanceRollupServiceImpl;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Finance totals are now summed by Mongo ($group) or read from daily rollups, so the Java side only merges
+// small result sets. The stream reductions the service used to run over every transaction are kept here as the
+// baseline; the other benchmarks call the remaining in-process work directly on the same synthetic data.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinanceAggregationBenchmark {
+
+    @Param({"10000", "100000"})
+    private int transactions;
+
+    private List<ClinicFinance> finances;
+    private List<FinanceDailyRollup> rollups;
+    private List<Document> groupResults;
+
+    @Setup
+    public void setup() {
+        finances = SampleData.transactions(transactions);
+        // One rollup per day/category/type, as FinanceRollupService stores them
+        Map<String, FinanceDailyRollup> byBucket = new HashMap<>();
+        for (ClinicFinance f : finances) {
+            String bucket = f.getTransactionDate() + "|" + f.getCategory() + "|" + f.getType();
+            FinanceDailyRollup rollup = byBucket.computeIfAbsent(bucket, id -> FinanceDailyRollup.builder()
+                    .id(id).date(f.getTransactionDate()).category(f.getCategory()).type(f.getType())
+                    .sum(BigDecimal.ZERO).build());
+            rollup.setSum(rollup.getSum().add(f.getAmount()));
+            rollup.setCount(rollup.getCount() + 1);
+        }
+        rollups = new ArrayList<>(byBucket.values());
+        groupResults = new ArrayList<>();
+        finances.stream()
+                .collect(Collectors.groupingBy(ClinicFinance::getType,
+                        Collectors.reducing(BigDecimal.ZERO, ClinicFinance::getAmount, BigDecimal::add)))
+                .forEach((type, total) -> groupResults.add(new Document("_id", type).append("total", new Decimal128(total))));
+    }
+
+    // Former FinanceServiceImpl approach: one filtered stream reduction per category over all transactions
+    @Benchmark
+    public BigDecimal streamReductionPerCategory() {
+        BigDecimal revenue = finances.stream()
+                .filter(f -> "REVENUE".equals(f.getCategory()))
+                .map(ClinicFinance::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal expense = finances.stream()
+                .filter(f -> "EXPENSE".equals(f.getCategory()))
+                .map(ClinicFinance::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return revenue.subtract(expense);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> singlePassGrouping() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (ClinicFinance f : finances) {
+            totals.merge(f.getCategory(), f.getAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    // FinanceRollupServiceImpl.sumByCategory over a year of daily rollups
+    @Benchmark
+    public Map<String, BigDecimal> rollupMerge() {
+        return FinanceRollupServiceImpl.mergeByCategory(rollups);
+    }
+
+    // ClinicFinanceRepositoryCustomImpl decoding $group output (Decimal128 totals)
+    @Benchmark
+    public Map<String, BigDecimal> decodeGroupResults() {
+        return ClinicFinanceRepositoryCustomImpl.decodeTotals(groupResults);
+    }
+}
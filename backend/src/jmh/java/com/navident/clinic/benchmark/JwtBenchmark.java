@@ -0,0 +1,45 @@
+package com.navident.clinic.benchmark;
+
+import com.navident.clinic.security.ClinicUserDetails;
+import com.navident.clinic.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// The per-request pair the auth filter used to run: validateToken followed by getUsernameFromToken.
+// cacheSize 0 measures a full signature check on every call, the default size measures the verified-token cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"0", "10000"})
+    private long cacheSize;
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret",
+                "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", cacheSize);
+        provider.init();
+        token = provider.generateToken(new ClinicUserDetails("65f1c0ffee0000000000abcd", "dr.smith", "",
+                "dr.smith@example.com", "CHIEF_DENTIST", 3L, true));
+    }
+
+    @Benchmark
+    public void validateAndGetUsername(Blackhole bh) {
+        bh.consume(provider.validateToken(token));
+        bh.consume(provider.getUsernameFromToken(token));
+    }
+}
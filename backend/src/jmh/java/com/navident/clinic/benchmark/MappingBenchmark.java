@@ -0,0 +1,92 @@
+package com.navident.clinic.benchmark;
+
+import com.navident.clinic.config.ModelMapperConfig;
+import com.navident.clinic.mapper.AppointmentMapper;
+import com.navident.clinic.mapper.BillMapper;
+import com.navident.clinic.mapper.PatientMapper;
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.Bill;
+import com.navident.clinic.model.Patient;
+import com.navident.clinic.model.dto.AppointmentDto;
+import com.navident.clinic.model.dto.BillDto;
+import com.navident.clinic.model.dto.PatientDto;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity -> DTO for one 100-row page, ModelMapper (as configured in ModelMapperConfig) vs the hand-written mappers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ModelMapper modelMapper;
+    private final AppointmentMapper appointmentMapper = new AppointmentMapper();
+    private final PatientMapper patientMapper = new PatientMapper();
+    private final BillMapper billMapper = new BillMapper();
+
+    private List<Appointment> appointments;
+    private List<Patient> patients;
+    private List<Bill> bills;
+    private PatientDto patientDto;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        appointments = SampleData.list(PAGE_SIZE, SampleData::appointment);
+        patients = SampleData.list(PAGE_SIZE, SampleData::patient);
+        bills = SampleData.list(PAGE_SIZE, SampleData::bill);
+        patientDto = patientMapper.toDto(patients.get(0));
+    }
+
+    @Benchmark
+    public List<AppointmentDto> appointmentsModelMapper() {
+        return appointments.stream().map(a -> modelMapper.map(a, AppointmentDto.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AppointmentDto> appointmentsDtoMapper() {
+        return appointments.stream().map(appointmentMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PatientDto> patientsModelMapper() {
+        return patients.stream().map(p -> modelMapper.map(p, PatientDto.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PatientDto> patientsDtoMapper() {
+        return patients.stream().map(patientMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BillDto> billsModelMapper() {
+        return bills.stream().map(b -> modelMapper.map(b, BillDto.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BillDto> billsDtoMapper() {
+        return bills.stream().map(billMapper::toDto).collect(Collectors.toList());
+    }
+
+    // Request body -> entity, single object as on create/update
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Patient patientToEntityModelMapper() {
+        return modelMapper.map(patientDto, Patient.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Patient patientToEntityDtoMapper() {
+        return patientMapper.toEntity(patientDto);
+    }
+}
@@ -0,0 +1,28 @@
+package com.navident.clinic.benchmark;
+
+import com.navident.clinic.model.Bill;
+import com.navident.clinic.util.PdfUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfBenchmark {
+
+    private Bill bill;
+
+    @Setup
+    public void setup() {
+        bill = SampleData.bill(1);
+    }
+
+    @Benchmark
+    public byte[] generateBillPdf() {
+        return PdfUtil.generateBillPdf(bill);
+    }
+}
@@ -0,0 +1,95 @@
+package com.navident.clinic.benchmark;
+
+import com.navident.clinic.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+// Deterministic synthetic records so runs are comparable between releases
+final class SampleData {
+
+    private static final String[] CATEGORIES = {"REVENUE", "EXPENSE"};
+    private static final String[] TYPES = {"Consultation", "Supplies", "Salary", "Rent", "Lab"};
+    private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+
+    private SampleData() {
+    }
+
+    static Appointment appointment(int i) {
+        return Appointment.builder()
+                .id(objectId(i))
+                .patientId(objectId(i * 7))
+                .patientName("Patient " + i)
+                .dentistId(objectId(i % 12))
+                .dentistName("Dr. Dentist " + (i % 12))
+                .appointmentDate(BASE_DATE.plusDays(i % 365))
+                .appointmentTime(String.format("%02d:%02d", 8 + i % 10, (i % 4) * 15))
+                .status(i % 5 == 0 ? "CANCELLED" : "SCHEDULED")
+                .notes("Routine check-up and cleaning, follow-up in six months")
+                .build();
+    }
+
+    static Patient patient(int i) {
+        return Patient.builder()
+                .id(objectId(i))
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("patient" + i + "@example.com")
+                .mobileNumber("+1555" + (1000000 + i))
+                .gender(i % 2 == 0 ? "F" : "M")
+                .bloodGroup("O+")
+                .dateOfBirth("1985-04-" + String.format("%02d", 1 + i % 28))
+                .allergies(List.of("Penicillin", "Latex"))
+                .address(new Patient.Address(i + " Main Street", "Springfield", "IL", "62701", "USA"))
+                .build();
+    }
+
+    static Bill bill(int i) {
+        return Bill.builder()
+                .id(objectId(i))
+                .billId("B-" + (100000 + i))
+                .patientId(objectId(i * 7))
+                .patientName("Patient " + i)
+                .dentistId(objectId(i % 12))
+                .dentistName("Dr. Dentist " + (i % 12))
+                .billDate(BASE_DATE.plusDays(i % 365))
+                .amountDue(BigDecimal.valueOf(15000 + i % 500, 2))
+                .amountPaid(BigDecimal.valueOf(5000 + i % 300, 2))
+                .dueDate(BASE_DATE.plusDays(30 + i % 365))
+                .paymentStatus(i % 3 == 0 ? "PAID" : "PENDING")
+                .build();
+    }
+
+    static List<ClinicFinance> transactions(int count) {
+        Random random = new Random(42);
+        List<ClinicFinance> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(ClinicFinance.builder()
+                    .id(objectId(i))
+                    .transactionDate(BASE_DATE.plusDays(i % 365))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .type(TYPES[random.nextInt(TYPES.length)])
+                    .amount(BigDecimal.valueOf(random.nextInt(500_000), 2))
+                    .vendorName("Vendor " + (i % 40))
+                    .status("COMPLETED")
+                    .build());
+        }
+        return list;
+    }
+
+    static <T> List<T> list(int count, IntFunction<T> factory) {
+        List<T> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(factory.apply(i));
+        }
+        return list;
+    }
+
+    private static String objectId(int i) {
+        return String.format("%024x", i);
+    }
+}
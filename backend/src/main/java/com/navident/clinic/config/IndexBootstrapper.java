@@ -0,0 +1,58 @@
+package com.navident.clinic.config;
+
+import com.navident.clinic.service.IndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// app.mongo.indexes.mode: create (default) ensures indexes at startup, verify only reports missing ones,
+// migrate ensures them and shuts down (for a one-off deploy step), none skips index management
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexBootstrapper {
+
+    private final IndexService indexService;
+    private final ApplicationContext context;
+
+    @Value("${app.mongo.indexes.mode:create}")
+    private String mode;
+
+    @Value("${app.mongo.indexes.explain-on-startup:false}")
+    private boolean explainOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        switch (mode) {
+            case "create" -> indexService.ensureIndexes();
+            case "verify" -> {
+                List<String> missing = indexService.findMissingIndexes();
+                if (missing.isEmpty()) {
+                    log.info("All declared indexes are present");
+                } else {
+                    log.warn("Missing {} declared indexes: {}", missing.size(), missing);
+                }
+            }
+            case "migrate" -> {
+                indexService.ensureIndexes();
+                log.info("Index migration finished, shutting down");
+                System.exit(SpringApplication.exit(context, () -> 0));
+            }
+            case "none" -> log.info("Index management disabled");
+            default -> throw new IllegalStateException("Unknown app.mongo.indexes.mode: " + mode);
+        }
+        if (explainOnStartup) {
+            long collscans = indexService.explainRepositoryQueries().stream()
+                    .filter(row -> Boolean.TRUE.equals(row.get("collscan")))
+                    .count();
+            log.info("Query plan check finished: {} repository queries use a COLLSCAN", collscans);
+        }
+    }
+}
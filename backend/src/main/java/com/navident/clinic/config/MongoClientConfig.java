@@ -0,0 +1,125 @@
+package com.navident.clinic.config;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tunes the single auto-configured MongoClient (spring.data.mongodb.uri). Values here override URI options.
+// Per-query read preferences are declared on repositories with @ReadPreference.
+@Configuration
+@Slf4j
+public class MongoClientConfig {
+
+    @Value("${app.mongo.pool.min-size:5}")
+    private int minPoolSize;
+
+    @Value("${app.mongo.pool.max-size:50}")
+    private int maxPoolSize;
+
+    @Value("${app.mongo.pool.max-idle-ms:60000}")
+    private long maxIdleMs;
+
+    @Value("${app.mongo.pool.max-life-ms:1800000}")
+    private long maxLifeMs;
+
+    // How long a request waits for a free pooled connection before failing
+    @Value("${app.mongo.pool.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${app.mongo.connect-timeout-ms:10000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.mongo.socket-timeout-ms:30000}")
+    private int socketTimeoutMs;
+
+    @Value("${app.mongo.server-selection-timeout-ms:10000}")
+    private long serverSelectionTimeoutMs;
+
+    // Offered in order; the server picks the first one it supports
+    @Value("${app.mongo.compressors:zstd,snappy}")
+    private String compressors;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientTuning(MeterRegistry meterRegistry, QueryProfiler queryProfiler) {
+        List<MongoCompressor> compressorList = Arrays.stream(compressors.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(this::compressor)
+                .toList();
+        log.info("Mongo pool {}-{}, wait {} ms, compressors {}", minPoolSize, maxPoolSize, maxWaitMs, compressors);
+        return builder -> builder
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(minPoolSize)
+                        .maxSize(maxPoolSize)
+                        .maxConnectionIdleTime(maxIdleMs, TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(maxLifeMs, TimeUnit.MILLISECONDS)
+                        .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new CheckoutMetricsListener(meterRegistry)))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                        .readTimeout(socketTimeoutMs, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeoutMs, TimeUnit.MILLISECONDS))
+                .compressorList(compressorList)
+                .addCommandListener(queryProfiler);
+    }
+
+    private MongoCompressor compressor(String name) {
+        return switch (name.toLowerCase()) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unknown Mongo compressor: " + name);
+        };
+    }
+
+    // Pool size gauges come from actuator's listener; this adds checkout wait time and failures.
+    // Checkout is synchronous on the calling thread, so a ThreadLocal pairs start and end events.
+    static class CheckoutMetricsListener implements ConnectionPoolListener {
+
+        private final ThreadLocal<Long> checkoutStart = new ThreadLocal<>();
+        private final MeterRegistry meterRegistry;
+        private final Timer checkoutTimer;
+
+        CheckoutMetricsListener(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            this.checkoutTimer = Timer.builder("mongodb.pool.checkout")
+                    .description("Time spent waiting for a pooled Mongo connection")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+            checkoutStart.set(System.nanoTime());
+        }
+
+        @Override
+        public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+            Long start = checkoutStart.get();
+            if (start != null) {
+                checkoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                checkoutStart.remove();
+            }
+        }
+
+        @Override
+        public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+            checkoutStart.remove();
+            meterRegistry.counter("mongodb.pool.checkout.failed", "reason", event.getReason().name()).increment();
+        }
+    }
+}
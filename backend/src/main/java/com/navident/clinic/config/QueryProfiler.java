@@ -0,0 +1,197 @@
+package com.navident.clinic.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.*;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Attributes Mongo commands to the repository method that issued them and logs slow ones with values redacted.
+// The sync driver fires command events on the calling thread, so a ThreadLocal links the two.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueryProfiler implements CommandListener {
+
+    public static final String TIMER = "repository.invocations";
+    public static final String DOCUMENTS = "repository.documents";
+    public static final String BYTES = "repository.bytes";
+
+    private static final Set<String> PROFILED_COMMANDS =
+            Set.of("find", "getMore", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+    // Parts of a command that describe its shape; everything else (payloads, session ids) is dropped
+    private static final List<String> SHAPE_KEYS =
+            List.of("filter", "query", "pipeline", "sort", "projection", "updates", "deletes", "key");
+    private static final int SLOW_LOG_SIZE = 100;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mongo.profiling.slow-command-ms:200}")
+    private long slowCommandMs;
+
+    private final ThreadLocal<Invocation> current = new ThreadLocal<>();
+    private final Map<Integer, String> shapesByRequest = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> slowCommands = new ArrayDeque<>();
+
+    public Invocation enter(String repository, String method) {
+        Invocation invocation = new Invocation(repository, method, current.get());
+        current.set(invocation);
+        return invocation;
+    }
+
+    public void exit(Invocation invocation, long elapsedNanos) {
+        if (invocation.previous != null) {
+            current.set(invocation.previous);
+        } else {
+            current.remove();
+        }
+        Timer.builder(TIMER)
+                .tags("repository", invocation.repository, "method", invocation.method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(DOCUMENTS)
+                .tags("repository", invocation.repository, "method", invocation.method)
+                .register(meterRegistry)
+                .record(invocation.documents);
+        DistributionSummary.builder(BYTES)
+                .baseUnit("bytes")
+                .tags("repository", invocation.repository, "method", invocation.method)
+                .register(meterRegistry)
+                .record(invocation.bytes);
+    }
+
+    public List<Map<String, Object>> getSlowCommands() {
+        synchronized (slowCommands) {
+            return new ArrayList<>(slowCommands);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (PROFILED_COMMANDS.contains(event.getCommandName())) {
+            // The command document is only valid during this callback, so the redacted shape is captured now
+            shapesByRequest.put(event.getRequestId(), shapeOf(event.getCommand()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String shape = shapesByRequest.remove(event.getRequestId());
+        if (shape == null) return;
+        Invocation invocation = current.get();
+        if (invocation != null) {
+            BsonDocument reply = event.getResponse();
+            invocation.documents += documentCount(reply);
+            invocation.bytes += byteSize(reply);
+        }
+        logIfSlow(event.getCommandName(), event.getDatabaseName(), shape,
+                event.getElapsedTime(TimeUnit.MILLISECONDS), invocation, true);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String shape = shapesByRequest.remove(event.getRequestId());
+        if (shape == null) return;
+        logIfSlow(event.getCommandName(), event.getDatabaseName(), shape,
+                event.getElapsedTime(TimeUnit.MILLISECONDS), current.get(), false);
+    }
+
+    private void logIfSlow(String command, String database, String shape, long elapsedMs,
+                           Invocation invocation, boolean succeeded) {
+        if (elapsedMs < slowCommandMs) return;
+        String source = invocation != null ? invocation.repository + "." + invocation.method : "MongoTemplate";
+        log.warn("Slow Mongo {} ({} ms{}) from {} on {}: {}", command, elapsedMs,
+                succeeded ? "" : ", failed", source, database, shape);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", LocalDateTime.now());
+        entry.put("command", command);
+        entry.put("source", source);
+        entry.put("elapsedMs", elapsedMs);
+        entry.put("succeeded", succeeded);
+        entry.put("shape", shape);
+        synchronized (slowCommands) {
+            if (slowCommands.size() == SLOW_LOG_SIZE) {
+                slowCommands.removeLast();
+            }
+            slowCommands.addFirst(entry);
+        }
+    }
+
+    private static String shapeOf(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        // The first key names the command and holds the collection name, which is not sensitive
+        String commandName = command.getFirstKey();
+        shape.put(commandName, command.get(commandName));
+        for (String key : SHAPE_KEYS) {
+            if (command.containsKey(key)) {
+                shape.put(key, redact(command.get(key), key.equals("sort") || key.equals("projection")));
+            }
+        }
+        return shape.toJson();
+    }
+
+    // Keeps field names and operators, replaces every value; sort/projection values are directions, kept as is
+    private static BsonValue redact(BsonValue value, boolean keepValues) {
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((k, v) -> redacted.put(k, redact(v, keepValues)));
+            return redacted;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // Pipelines and $and/$or lists keep their structure; value lists ($in) collapse to one placeholder
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray redacted = new BsonArray();
+                array.forEach(v -> redacted.add(redact(v, keepValues)));
+                return redacted;
+            }
+            return new BsonArray(List.of(new BsonString("?")));
+        }
+        return keepValues ? value : new BsonString("?");
+    }
+
+    private static long documentCount(BsonDocument reply) {
+        BsonValue cursor = reply.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch") : cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = reply.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+    }
+
+    private static long byteSize(BsonDocument reply) {
+        RawBsonDocument raw = reply instanceof RawBsonDocument r ? r : new RawBsonDocument(reply, new BsonDocumentCodec());
+        return raw.getByteBuffer().remaining();
+    }
+
+    public static final class Invocation {
+        private final String repository;
+        private final String method;
+        private final Invocation previous;
+        private long documents;
+        private long bytes;
+
+        private Invocation(String repository, String method, Invocation previous) {
+            this.repository = repository;
+            this.method = method;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.navident.clinic.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+// Wraps every Spring Data repository proxy so each call is timed per repository method.
+// Stream-returning methods are timed until the first batch; later getMores run outside the call.
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    // Resolved lazily: post-processors are created before the beans they would otherwise depend on
+    private final ObjectProvider<QueryProfiler> profiler;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<QueryProfiler> profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository<?, ?> && bean instanceof Advised advised) {
+            String repository = repositoryName(advised);
+            MethodInterceptor timing = invocation -> {
+                QueryProfiler queryProfiler = profiler.getObject();
+                QueryProfiler.Invocation call = queryProfiler.enter(repository, invocation.getMethod().getName());
+                long start = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    queryProfiler.exit(call, System.nanoTime() - start);
+                }
+            };
+            advised.addAdvice(0, timing);
+        }
+        return bean;
+    }
+
+    private static String repositoryName(Advised advised) {
+        for (Class<?> type : advised.getProxiedInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && type.getPackageName().startsWith("com.navident")) {
+                return type.getSimpleName();
+            }
+        }
+        return "UnknownRepository";
+    }
+}
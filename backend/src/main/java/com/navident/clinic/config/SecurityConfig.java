@@ -2,6 +2,7 @@ package com.navident.clinic.config;
 
 import com.navident.clinic.security.JwtAuthenticationEntryPoint;
 import com.navident.clinic.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,8 +39,16 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .exceptionHandling(config -> config.authenticationEntryPoint(unauthorizedHandler))
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/api/auth/refresh").authenticated()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                // Cache, pool and query metrics describe the whole system; admins only
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMINISTRATOR")
+                // Method security is not enabled, so @PreAuthorize on these endpoints alone would not be enforced
+                .requestMatchers(HttpMethod.POST, "/api/finance/rollups/rebuild").hasRole("ADMINISTRATOR")
+                .requestMatchers("/api/admin/**").hasRole("ADMINISTRATOR")
                 .anyRequest().authenticated()
             );
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,52 @@
+package com.navident.clinic.config;
+
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.model.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Fields each list endpoint may sort on. Every one is backed by a {field, _id} index so Mongo walks the index
+// (either direction) instead of sorting the collection in memory; _id matches the keyset tie-breaker of /scroll.
+// Free-text fields such as notes/description, and BigDecimals stored as strings, are deliberately absent.
+@Component
+public class SortableFieldRegistry {
+
+    private final Map<Class<?>, Set<String>> sortable = new LinkedHashMap<>();
+
+    public SortableFieldRegistry() {
+        register(Appointment.class, "appointmentDate", "patientName", "dentistName", "status", "createdAt");
+        register(Bill.class, "billDate", "dueDate", "billId", "patientName", "paymentStatus", "createdAt");
+        register(ClinicFinance.class, "transactionDate", "category", "type", "vendorName", "createdAt");
+        register(ConsultantDentist.class, "createdAt", "firstName", "lastName", "experienceYears");
+        register(Insurance.class, "createdAt", "policyEndDate", "agencyName", "status");
+        register(Patient.class, "createdAt", "firstName", "lastName");
+        register(Prescription.class, "prescriptionDate", "patientName", "dentistName", "status", "createdAt");
+        register(Treatment.class, "treatmentName", "category", "createdAt");
+        register(User.class, "createdAt", "username", "firstName", "lastName", "role");
+    }
+
+    public Sort resolve(Class<?> entity, String sortBy, String sortDir) {
+        Set<String> fields = sortable.getOrDefault(entity, Set.of());
+        if (!fields.contains(sortBy)) {
+            throw new InvalidDataException("Cannot sort " + entity.getSimpleName() + " by '" + sortBy
+                    + "'; sortable fields are " + fields);
+        }
+        return Sort.by(sortDir.equalsIgnoreCase("desc") ? Direction.DESC : Direction.ASC, sortBy);
+    }
+
+    public Map<Class<?>, List<Index>> supportingIndexes() {
+        Map<Class<?>, List<Index>> indexes = new LinkedHashMap<>();
+        sortable.forEach((entity, fields) -> indexes.put(entity, fields.stream()
+                .map(field -> new Index().on(field, Direction.ASC).on("_id", Direction.ASC))
+                .toList()));
+        return indexes;
+    }
+
+    private void register(Class<?> entity, String... fields) {
+        sortable.put(entity, new LinkedHashSet<>(Arrays.asList(fields)));
+    }
+}
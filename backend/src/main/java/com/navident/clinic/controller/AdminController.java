@@ -0,0 +1,42 @@
+package com.navident.clinic.controller;
+
+import com.navident.clinic.service.IndexService;
+import com.navident.clinic.service.QueryStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMINISTRATOR')")
+public class AdminController {
+
+    private final IndexService indexService;
+    private final QueryStatsService queryStatsService;
+
+    @GetMapping("/indexes/missing")
+    public List<String> missingIndexes() {
+        return indexService.findMissingIndexes();
+    }
+
+    @GetMapping("/indexes/explain")
+    public List<Map<String, Object>> explainQueries() {
+        return indexService.explainRepositoryQueries();
+    }
+
+    @GetMapping("/query-stats")
+    public Map<String, Object> queryStats() {
+        return Map.of(
+                "repositoryMethods", queryStatsService.getRepositoryMethodStats(),
+                "slowCommands", queryStatsService.getSlowCommands());
+    }
+
+    @PostMapping("/indexes/ensure")
+    public Map<String, Integer> ensureIndexes() {
+        return Map.of("ensured", indexService.ensureIndexes());
+    }
+}
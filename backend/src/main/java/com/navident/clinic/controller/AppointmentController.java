@@ -1,13 +1,22 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.AppointmentMapper;
 import com.navident.clinic.model.Appointment;
 import com.navident.clinic.model.dto.AppointmentDto;
+import com.navident.clinic.model.dto.AppointmentSeriesRequest;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.model.dto.RescheduleRequest;
+import com.navident.clinic.model.dto.SeriesUpdateRequest;
+import com.navident.clinic.service.DaySheetService;
+import com.navident.clinic.service.DaySheetService.DaySheet;
+import com.navident.clinic.service.ExportJobService;
 import com.navident.clinic.service.AppointmentService;
-import com.navident.clinic.util.ExcelUtil;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -16,9 +25,12 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,22 +42,25 @@ import java.util.stream.Collectors;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
-    private final ModelMapper mapper;
+    private final ExportJobService exportJobService;
+    private final AppointmentMapper mapper;
+    private final SortableFieldRegistry sortableFields;
+    private final DaySheetService daySheets;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
     public ResponseEntity<AppointmentDto> createAppointment(@Valid @RequestBody AppointmentDto dto) {
         log.info("Creating appointment for patient: {}", dto.getPatientName());
-        Appointment entity = mapper.map(dto, Appointment.class);
+        Appointment entity = mapper.toEntity(dto);
         Appointment saved = appointmentService.createAppointment(entity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, AppointmentDto.class));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<AppointmentDto> getAppointmentById(@PathVariable String id) {
         log.info("Fetching appointment ID {}", id);
         Appointment appt = appointmentService.getAppointmentById(id);
-        return ResponseEntity.ok(mapper.map(appt, AppointmentDto.class));
+        return ResponseEntity.ok(mapper.toDto(appt));
     }
 
     @GetMapping
@@ -56,37 +71,47 @@ public class AppointmentController {
             @RequestParam(defaultValue = "desc") String sortDir) {
 
         log.info("Listing appointments page {} size {}", page, size);
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(Appointment.class, sortBy, sortDir);
 
         Page<Appointment> result = appointmentService.getAllAppointments(PageRequest.of(page, size, sort));
-        return ResponseEntity.ok(result.map(a -> mapper.map(a, AppointmentDto.class)));
+        return ResponseEntity.ok(result.map(mapper::toDto));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<AppointmentDto>> scroll(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(defaultValue = "appointmentDate") String sortBy,
+                                                             @RequestParam(defaultValue = "desc") String sortDir,
+                                                             @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(Appointment.class, sortBy, sortDir);
+        return ResponseEntity.ok(appointmentService.scrollAppointments(sort, cursor, size, withTotal).map(mapper::toDto));
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<AppointmentDto>> searchAppointments(@RequestParam String query) {
         log.info("Searching appointments with query: {}", query);
         List<AppointmentDto> list = appointmentService.searchAppointments(query)
-                .stream().map(a -> mapper.map(a, AppointmentDto.class)).collect(Collectors.toList());
+                .stream().map(mapper::toDto).collect(Collectors.toList());
         return ResponseEntity.ok(list);
     }
 
     @GetMapping("/date/{date}")
     public ResponseEntity<List<AppointmentDto>> getByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, WebRequest request) {
         log.info("Listing appointments for date: {}", date);
-        List<AppointmentDto> list = appointmentService.listAppointmentsByDate(date)
-                .stream().map(a -> mapper.map(a, AppointmentDto.class)).collect(Collectors.toList());
-        return ResponseEntity.ok(list);
+        return daySheetResponse(daySheets.getDay(date), request);
     }
 
     @GetMapping("/today")
-    public ResponseEntity<List<AppointmentDto>> getToday() {
+    public ResponseEntity<List<AppointmentDto>> getToday(WebRequest request) {
         log.info("Listing today's appointments");
-        List<AppointmentDto> list = appointmentService.getTodayAppointments()
-                .stream().map(a -> mapper.map(a, AppointmentDto.class)).collect(Collectors.toList());
-        return ResponseEntity.ok(list);
+        return daySheetResponse(daySheets.getDay(LocalDate.now()), request);
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<AppointmentDto>> getUpcoming(WebRequest request) {
+        log.info("Listing upcoming appointments");
+        return daySheetResponse(daySheets.getUpcoming(), request);
     }
 
     @PutMapping("/{id}")
@@ -95,9 +120,50 @@ public class AppointmentController {
             @PathVariable String id,
             @Valid @RequestBody AppointmentDto dto) {
         log.info("Updating appointment ID {}", id);
-        Appointment entity = mapper.map(dto, Appointment.class);
+        Appointment entity = mapper.toEntity(dto);
         Appointment updated = appointmentService.updateAppointment(id, entity);
-        return ResponseEntity.ok(mapper.map(updated, AppointmentDto.class));
+        return ResponseEntity.ok(mapper.toDto(updated));
+    }
+
+    // All moves are checked together and saved together, or none are
+    @PostMapping("/reschedule")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
+    public ResponseEntity<List<AppointmentDto>> reschedule(
+            @RequestBody @Size(min = 1, max = 500) List<@Valid RescheduleRequest> moves) {
+        log.info("Rescheduling {} appointments", moves.size());
+        List<AppointmentDto> list = appointmentService.rescheduleAppointments(moves)
+                .stream().map(mapper::toDto).collect(Collectors.toList());
+        return ResponseEntity.ok(list);
+    }
+
+    @PostMapping("/series")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
+    public ResponseEntity<List<AppointmentDto>> createSeries(@Valid @RequestBody AppointmentSeriesRequest request) {
+        log.info("Creating {} appointment series for patient: {}",
+                request.getRecurrence().getFrequency(), request.getTemplate().getPatientName());
+        List<AppointmentDto> list = appointmentService
+                .createSeries(mapper.toEntity(request.getTemplate()), request.getRecurrence())
+                .stream().map(mapper::toDto).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(list);
+    }
+
+    @GetMapping("/series/{seriesId}")
+    public ResponseEntity<List<AppointmentDto>> getSeries(@PathVariable String seriesId) {
+        List<AppointmentDto> list = appointmentService.getSeries(seriesId)
+                .stream().map(mapper::toDto).collect(Collectors.toList());
+        return ResponseEntity.ok(list);
+    }
+
+    // "This and following": every occurrence from fromIndex on, except completed ones
+    @PutMapping("/series/{seriesId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
+    public ResponseEntity<List<AppointmentDto>> updateSeries(@PathVariable String seriesId,
+                                                             @RequestParam(defaultValue = "0") int fromIndex,
+                                                             @RequestBody SeriesUpdateRequest changes) {
+        log.info("Updating appointment series {} from index {}", seriesId, fromIndex);
+        List<AppointmentDto> list = appointmentService.updateSeries(seriesId, fromIndex, changes)
+                .stream().map(mapper::toDto).collect(Collectors.toList());
+        return ResponseEntity.ok(list);
     }
 
     @DeleteMapping("/{id}")
@@ -109,12 +175,12 @@ public class AppointmentController {
     }
 
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportExcel(
+    public ResponseEntity<StreamingResponseBody> exportExcel(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
         log.info("Exporting appointments from {} to {}", startDate, endDate);
-        byte[] file = appointmentService.exportAppointmentsExcel(startDate, endDate);
+        StreamingResponseBody file = out -> appointmentService.exportAppointmentsExcel(startDate, endDate, out);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentDisposition(ContentDisposition.builder("attachment")
                 .filename("appointments-" + startDate + "_to_" + endDate + ".xlsx")
@@ -122,4 +188,26 @@ public class AppointmentController {
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
         return ResponseEntity.ok().headers(headers).body(file);
     }
+
+    @PostMapping("/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        ExportJobDto job = exportJobService.submit("appointments", Map.of("startDate", startDate, "endDate", endDate),
+                "appointments-" + startDate + "_to_" + endDate + ".xlsx",
+                out -> appointmentService.exportAppointmentsExcel(startDate, endDate, out));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // Polling screens send If-None-Match; an unchanged sheet is answered with 304 and no body
+    private ResponseEntity<List<AppointmentDto>> daySheetResponse(DaySheet sheet, WebRequest request) {
+        if (sheet.getEtag() == null) {
+            return ResponseEntity.ok(sheet.getAppointments().stream().map(mapper::toDto).collect(Collectors.toList()));
+        }
+        if (request.checkNotModified(sheet.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(sheet.getEtag()).build();
+        }
+        List<AppointmentDto> list = sheet.getAppointments().stream().map(mapper::toDto).collect(Collectors.toList());
+        return ResponseEntity.ok().eTag(sheet.getEtag()).cacheControl(CacheControl.noCache()).body(list);
+    }
 }
@@ -4,15 +4,16 @@ import com.navident.clinic.model.User;
 import com.navident.clinic.model.dto.AuthRequest;
 import com.navident.clinic.model.dto.AuthResponse;
 import com.navident.clinic.repository.UserRepository;
+import com.navident.clinic.security.ClinicUserDetails;
 import com.navident.clinic.security.JwtTokenProvider;
+import com.navident.clinic.security.LoginGuard;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.annotation.Validated;
@@ -27,35 +28,28 @@ import java.time.LocalDateTime;
 @Slf4j
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginGuard loginGuard;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
-    private final ModelMapper mapper;
 
     @PostMapping("/signin")
-    public ResponseEntity<AuthResponse> authenticateUser(@Valid @RequestBody AuthRequest loginRequest) {
+    public ResponseEntity<AuthResponse> authenticateUser(@Valid @RequestBody AuthRequest loginRequest,
+                                                         HttpServletRequest request) {
         log.info("🔐 Signin attempt for username: {}", loginRequest.getUsername());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-        );
+        Authentication authentication = loginGuard.authenticate(
+                loginRequest.getUsername(), loginRequest.getPassword(), request.getRemoteAddr());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
 
-        User user = userRepository.findByUsername(loginRequest.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found: " + loginRequest.getUsername()));
+        // The principal already carries id, email and role; no second user lookup
+        ClinicUserDetails user = (ClinicUserDetails) authentication.getPrincipal();
+        String jwt = tokenProvider.generateToken(user);
 
         log.info("✅ User '{}' authenticated successfully", user.getUsername());
 
-        return ResponseEntity.ok(new AuthResponse(
-                jwt,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole()
-        ));
+        return toAuthResponse(jwt, user);
     }
 
     @PostMapping("/signup")
@@ -86,15 +80,17 @@ public class AuthController {
         ));
     }
 
+    // Requires a valid token; the new one is issued from the authenticated principal
     @PostMapping("/refresh")
-    public ResponseEntity<AuthResponse> refreshToken(@RequestParam String username) {
-        log.info("♻️ Refresh token for username: {}", username);
+    public ResponseEntity<AuthResponse> refreshToken(@AuthenticationPrincipal ClinicUserDetails user) {
+        log.info("♻️ Refresh token for username: {}", user.getUsername());
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        String jwt = tokenProvider.generateToken(user);
 
-        String jwt = tokenProvider.generateTokenFromUsername(username);
+        return toAuthResponse(jwt, user);
+    }
 
+    private ResponseEntity<AuthResponse> toAuthResponse(String jwt, ClinicUserDetails user) {
         return ResponseEntity.ok(new AuthResponse(
                 jwt,
                 user.getId(),
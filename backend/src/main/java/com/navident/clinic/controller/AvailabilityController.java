@@ -0,0 +1,35 @@
+package com.navident.clinic.controller;
+
+import com.navident.clinic.model.dto.FreeSlotDto;
+import com.navident.clinic.service.AvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/availability")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    @GetMapping("/dentists/{dentistId}")
+    public List<FreeSlotDto> freeSlots(@PathVariable String dentistId,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(defaultValue = "30") int durationMinutes) {
+        return availabilityService.findFreeSlots(dentistId, from, to, durationMinutes);
+    }
+
+    @GetMapping("/first")
+    public FreeSlotDto firstAvailable(@RequestParam String specialization,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(defaultValue = "30") int durationMinutes) {
+        return availabilityService.findFirstAvailable(specialization, from != null ? from : LocalDate.now(), durationMinutes);
+    }
+}
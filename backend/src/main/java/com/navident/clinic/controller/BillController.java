@@ -1,21 +1,26 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.BillMapper;
 import com.navident.clinic.model.Bill;
 import com.navident.clinic.model.dto.BillDto;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.ExportJobService;
 import com.navident.clinic.service.BillService;
-import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,18 +32,20 @@ import java.util.stream.Collectors;
 public class BillController {
 
     private final BillService billService;
-    private final ModelMapper mapper;
+    private final ExportJobService exportJobService;
+    private final BillMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
     public ResponseEntity<BillDto> create(@Valid @RequestBody BillDto dto) {
-        Bill saved = billService.createBill(mapper.map(dto, Bill.class));
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, BillDto.class));
+        Bill saved = billService.createBill(mapper.toEntity(dto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<BillDto> get(@PathVariable String id) {
-        return ResponseEntity.ok(mapper.map(billService.getBillById(id), BillDto.class));
+        return ResponseEntity.ok(mapper.toDto(billService.getBillById(id)));
     }
 
     @GetMapping
@@ -46,19 +53,29 @@ public class BillController {
                               @RequestParam(defaultValue = "10") int size,
                               @RequestParam(defaultValue = "billDate") String sortBy,
                               @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        return billService.getAllBills(PageRequest.of(page, size, sort)).map(b -> mapper.map(b, BillDto.class));
+        Sort sort = sortableFields.resolve(Bill.class, sortBy, sortDir);
+        return billService.getAllBills(PageRequest.of(page, size, sort)).map(mapper::toDto);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPage<BillDto> scroll(@RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "10") int size,
+                                      @RequestParam(defaultValue = "billDate") String sortBy,
+                                      @RequestParam(defaultValue = "desc") String sortDir,
+                                      @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(Bill.class, sortBy, sortDir);
+        return billService.scrollBills(sort, cursor, size, withTotal).map(mapper::toDto);
     }
 
     @GetMapping("/search")
     public List<BillDto> search(@RequestParam String query) {
-        return billService.searchBills(query).stream().map(b -> mapper.map(b, BillDto.class)).collect(Collectors.toList());
+        return billService.searchBills(query).stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
     public ResponseEntity<BillDto> update(@PathVariable String id, @Valid @RequestBody BillDto dto) {
-        return ResponseEntity.ok(mapper.map(billService.updateBill(id, mapper.map(dto, Bill.class)), BillDto.class));
+        return ResponseEntity.ok(mapper.toDto(billService.updateBill(id, mapper.toEntity(dto))));
     }
 
     @DeleteMapping("/{id}")
@@ -77,10 +94,18 @@ public class BillController {
     }
 
     @GetMapping("/patient/{patientId}/export/excel")
-    public ResponseEntity<byte[]> exportForPatient(@PathVariable String patientId) {
-        byte[] excel = billService.exportBillsExcel(patientId);
+    public ResponseEntity<StreamingResponseBody> exportForPatient(@PathVariable String patientId) {
+        StreamingResponseBody excel = out -> billService.exportBillsExcel(patientId, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=patient-bills-" + patientId + ".xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM).body(excel);
     }
+
+    @PostMapping("/patient/{patientId}/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob(@PathVariable String patientId) {
+        ExportJobDto job = exportJobService.submit("bills", Map.of("patientId", patientId),
+                "patient-bills-" + patientId + ".xlsx",
+                out -> billService.exportBillsExcel(patientId, out));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
 }
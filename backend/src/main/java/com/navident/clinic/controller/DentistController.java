@@ -1,21 +1,26 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.DentistMapper;
 import com.navident.clinic.model.ConsultantDentist;
 import com.navident.clinic.model.dto.DentistDto;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.ExportJobService;
 import com.navident.clinic.service.DentistService;
-import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,20 +32,22 @@ import java.util.stream.Collectors;
 public class DentistController {
 
     private final DentistService dentistService;
-    private final ModelMapper mapper;
+    private final ExportJobService exportJobService;
+    private final DentistMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST')")
     public ResponseEntity<DentistDto> create(@Valid @RequestBody DentistDto dto) {
-        ConsultantDentist entity = mapper.map(dto, ConsultantDentist.class);
+        ConsultantDentist entity = mapper.toEntity(dto);
         ConsultantDentist saved = dentistService.createDentist(entity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, DentistDto.class));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<DentistDto> get(@PathVariable String id) {
         ConsultantDentist dentist = dentistService.getDentistById(id);
-        return ResponseEntity.ok(mapper.map(dentist, DentistDto.class));
+        return ResponseEntity.ok(mapper.toDto(dentist));
     }
 
     @GetMapping
@@ -48,23 +55,33 @@ public class DentistController {
                                                  @RequestParam(defaultValue = "10") int size,
                                                  @RequestParam(defaultValue = "createdAt") String sortBy,
                                                  @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(ConsultantDentist.class, sortBy, sortDir);
         Page<ConsultantDentist> result = dentistService.getAllDentists(PageRequest.of(page, size, sort));
-        return ResponseEntity.ok(result.map(d -> mapper.map(d, DentistDto.class)));
+        return ResponseEntity.ok(result.map(mapper::toDto));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<DentistDto>> scroll(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                         @RequestParam(defaultValue = "desc") String sortDir,
+                                                         @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(ConsultantDentist.class, sortBy, sortDir);
+        return ResponseEntity.ok(dentistService.scrollDentists(sort, cursor, size, withTotal).map(mapper::toDto));
     }
 
     @GetMapping("/search")
     public List<DentistDto> search(@RequestParam String query) {
         return dentistService.searchDentists(query)
-                .stream().map(d -> mapper.map(d, DentistDto.class)).collect(Collectors.toList());
+                .stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST')")
     public ResponseEntity<DentistDto> update(@PathVariable String id, @Valid @RequestBody DentistDto dto) {
-        ConsultantDentist entity = mapper.map(dto, ConsultantDentist.class);
+        ConsultantDentist entity = mapper.toEntity(dto);
         ConsultantDentist updated = dentistService.updateDentist(id, entity);
-        return ResponseEntity.ok(mapper.map(updated, DentistDto.class));
+        return ResponseEntity.ok(mapper.toDto(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -77,7 +94,7 @@ public class DentistController {
     @GetMapping("/active")
     public List<DentistDto> getActiveDentists() {
         return dentistService.getActiveDentists()
-                .stream().map(d -> mapper.map(d, DentistDto.class)).collect(Collectors.toList());
+                .stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @GetMapping("/{id}/pdf")
@@ -90,11 +107,18 @@ public class DentistController {
     }
 
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportExcel() {
-        byte[] excelBytes = ExcelUtil.dentistsToExcel(dentistService.getAllDentists());
+    public ResponseEntity<StreamingResponseBody> exportExcel() {
+        StreamingResponseBody body = dentistService::exportDentistsToExcel;
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=dentists.xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelBytes);
+                .body(body);
+    }
+
+    @PostMapping("/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob() {
+        ExportJobDto job = exportJobService.submit("dentists", Map.of(), "dentists.xlsx",
+                dentistService::exportDentistsToExcel);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
     }
 }
@@ -0,0 +1,45 @@
+package com.navident.clinic.controller;
+
+import com.navident.clinic.model.dto.StreamTicketResponse;
+import com.navident.clinic.security.StreamTicketRegistry;
+import com.navident.clinic.service.EventStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// EventSource cannot set headers, so a stream is opened with ?ticket= from POST /ticket. Tickets are single use:
+// on a dropped connection the client fetches a new ticket and reconnects with ?lastEventId= to resume.
+// Browsers resend the last id in Last-Event-ID when they reconnect on their own.
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT','PRINTING_ONLY')")
+public class EventController {
+
+    private final EventStreamService eventStreamService;
+    private final StreamTicketRegistry streamTickets;
+
+    @PostMapping("/ticket")
+    public ResponseEntity<StreamTicketResponse> ticket(Authentication authentication) {
+        return ResponseEntity.ok(new StreamTicketResponse(
+                streamTickets.issue(authentication.getName()), streamTickets.getTtlSeconds()));
+    }
+
+    @GetMapping(value = "/clinic", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter clinic(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                             @RequestParam(required = false) String lastEventId) {
+        return eventStreamService.subscribe("clinic", lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @GetMapping(value = "/dentists/{dentistId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter dentist(@PathVariable String dentistId,
+                              @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                              @RequestParam(required = false) String lastEventId) {
+        return eventStreamService.subscribe("dentist:" + dentistId,
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
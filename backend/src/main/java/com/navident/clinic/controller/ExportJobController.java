@@ -0,0 +1,34 @@
+package com.navident.clinic.controller;
+
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.service.ExportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT','PRINTING_ONLY')")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDto> status(@PathVariable String id) {
+        return ResponseEntity.ok(exportJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        Resource file = new FileSystemResource(exportJobService.getArtifact(id));
+        ExportJobDto job = exportJobService.getJob(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(file);
+    }
+}
@@ -1,21 +1,27 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.FinanceMapper;
 import com.navident.clinic.model.ClinicFinance;
 import com.navident.clinic.model.dto.FinanceDto;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.ExportJobService;
+import com.navident.clinic.service.FinanceRollupService;
 import com.navident.clinic.service.FinanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/finance")
@@ -25,17 +31,20 @@ import java.util.stream.Collectors;
 public class FinanceController {
 
     private final FinanceService financeService;
-    private final ModelMapper mapper;
+    private final FinanceRollupService rollupService;
+    private final ExportJobService exportJobService;
+    private final FinanceMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     public ResponseEntity<FinanceDto> create(@Valid @RequestBody FinanceDto dto) {
-        ClinicFinance saved = financeService.createTransaction(mapper.map(dto, ClinicFinance.class));
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, FinanceDto.class));
+        ClinicFinance saved = financeService.createTransaction(mapper.toEntity(dto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<FinanceDto> get(@PathVariable String id) {
-        return ResponseEntity.ok(mapper.map(financeService.getTransactionById(id), FinanceDto.class));
+        return ResponseEntity.ok(mapper.toDto(financeService.getTransactionById(id)));
     }
 
     @GetMapping
@@ -43,22 +52,72 @@ public class FinanceController {
                                  @RequestParam(defaultValue = "10") int size,
                                  @RequestParam(defaultValue = "transactionDate") String sortBy,
                                  @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(ClinicFinance.class, sortBy, sortDir);
         return financeService.getAllTransactions(PageRequest.of(page, size, sort), null, null)
-                .map(f -> mapper.map(f, FinanceDto.class));
+                .map(mapper::toDto);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPage<FinanceDto> scroll(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestParam(defaultValue = "transactionDate") String sortBy,
+                                         @RequestParam(defaultValue = "desc") String sortDir,
+                                         @RequestParam(required = false) String category,
+                                         @RequestParam(required = false) String type,
+                                         @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(ClinicFinance.class, sortBy, sortDir);
+        return financeService.scrollTransactions(category, type, sort, cursor, size, withTotal).map(mapper::toDto);
     }
 
     @GetMapping("/search")
-    public List<FinanceDto> search(@RequestParam String query) {
-        return financeService.searchTransactions(query).stream().map(f -> mapper.map(f, FinanceDto.class)).collect(Collectors.toList());
+    public Page<FinanceDto> search(@RequestParam String query,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "20") int size) {
+        return financeService.searchTransactions(query, PageRequest.of(page, Math.min(size, 100)))
+                .map(mapper::toDto);
+    }
+
+    @GetMapping("/categories")
+    public List<String> categories() {
+        return financeService.getAllCategories();
+    }
+
+    @GetMapping("/types")
+    public List<String> types() {
+        return financeService.getAllTypes();
+    }
+
+    @GetMapping("/vendors")
+    public List<String> vendors() {
+        return financeService.getAllVendors();
+    }
+
+    @GetMapping("/trend")
+    public Map<String, Object> trend(@RequestParam int year) {
+        return financeService.getMonthlyFinancialTrend(year);
     }
 
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportExcel(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
-                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
-        byte[] excel = financeService.exportFinanceExcel(start, end);
+    public ResponseEntity<StreamingResponseBody> exportExcel(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        StreamingResponseBody excel = out -> financeService.exportFinanceExcel(start, end, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=finance.xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM).body(excel);
     }
+
+    @PostMapping("/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        ExportJobDto job = exportJobService.submit("finance", Map.of("start", start, "end", end), "finance.xlsx",
+                out -> financeService.exportFinanceExcel(start, end, out));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        log.info("Rebuilding finance daily rollups");
+        return ResponseEntity.ok(Map.of("buckets", rollupService.rebuild()));
+    }
 }
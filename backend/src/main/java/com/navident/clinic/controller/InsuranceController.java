@@ -1,18 +1,24 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.InsuranceMapper;
 import com.navident.clinic.model.Insurance;
+import com.navident.clinic.model.dto.ExportJobDto;
 import com.navident.clinic.model.dto.InsuranceDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.ExportJobService;
 import com.navident.clinic.service.InsuranceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,18 +29,20 @@ import java.util.stream.Collectors;
 public class InsuranceController {
 
     private final InsuranceService insuranceService;
-    private final ModelMapper mapper;
+    private final ExportJobService exportJobService;
+    private final InsuranceMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST')")
     public ResponseEntity<InsuranceDto> create(@Valid @RequestBody InsuranceDto dto) {
-        Insurance saved = insuranceService.createInsurance(mapper.map(dto, Insurance.class));
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, InsuranceDto.class));
+        Insurance saved = insuranceService.createInsurance(mapper.toEntity(dto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<InsuranceDto> get(@PathVariable String id) {
-        return ResponseEntity.ok(mapper.map(insuranceService.getInsuranceById(id), InsuranceDto.class));
+        return ResponseEntity.ok(mapper.toDto(insuranceService.getInsuranceById(id)));
     }
 
     @GetMapping
@@ -42,20 +50,35 @@ public class InsuranceController {
                                    @RequestParam(defaultValue = "10") int size,
                                    @RequestParam(defaultValue = "createdAt") String sortBy,
                                    @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(Insurance.class, sortBy, sortDir);
         return insuranceService.getAllInsurance(PageRequest.of(page, size, sort))
-                .map(i -> mapper.map(i, InsuranceDto.class));
+                .map(mapper::toDto);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPage<InsuranceDto> scroll(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "10") int size,
+                                           @RequestParam(defaultValue = "createdAt") String sortBy,
+                                           @RequestParam(defaultValue = "desc") String sortDir,
+                                           @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(Insurance.class, sortBy, sortDir);
+        return insuranceService.scrollInsurance(sort, cursor, size, withTotal).map(mapper::toDto);
     }
 
     @GetMapping("/search")
     public List<InsuranceDto> search(@RequestParam String query) {
-        return insuranceService.searchInsurance(query).stream().map(i -> mapper.map(i, InsuranceDto.class)).collect(Collectors.toList());
+        return insuranceService.searchInsurance(query).stream().map(mapper::toDto).collect(Collectors.toList());
+    }
+
+    @GetMapping("/agencies")
+    public List<String> agencies() {
+        return insuranceService.getAllAgencyNames();
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST')")
     public ResponseEntity<InsuranceDto> update(@PathVariable String id, @Valid @RequestBody InsuranceDto dto) {
-        return ResponseEntity.ok(mapper.map(insuranceService.updateInsurance(id, mapper.map(dto, Insurance.class)), InsuranceDto.class));
+        return ResponseEntity.ok(mapper.toDto(insuranceService.updateInsurance(id, mapper.toEntity(dto))));
     }
 
     @DeleteMapping("/{id}")
@@ -66,10 +89,18 @@ public class InsuranceController {
     }
 
     @GetMapping("/patient/{patientId}/export/excel")
-    public ResponseEntity<byte[]> exportExcel(@PathVariable String patientId) {
-        byte[] excel = insuranceService.exportInsuranceExcel(patientId);
+    public ResponseEntity<StreamingResponseBody> exportExcel(@PathVariable String patientId) {
+        StreamingResponseBody excel = out -> insuranceService.exportInsuranceExcel(patientId, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=insurance-" + patientId + ".xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM).body(excel);
     }
+
+    @PostMapping("/patient/{patientId}/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob(@PathVariable String patientId) {
+        ExportJobDto job = exportJobService.submit("insurance", Map.of("patientId", patientId),
+                "insurance-" + patientId + ".xlsx",
+                out -> insuranceService.exportInsuranceExcel(patientId, out));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
 }
@@ -1,21 +1,26 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.PatientMapper;
 import com.navident.clinic.model.Patient;
 import com.navident.clinic.model.dto.PatientDto;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.ExportJobService;
 import com.navident.clinic.service.PatientService;
-import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,20 +32,22 @@ import java.util.stream.Collectors;
 public class PatientController {
 
     private final PatientService patientService;
-    private final ModelMapper mapper;
+    private final ExportJobService exportJobService;
+    private final PatientMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
     public ResponseEntity<PatientDto> create(@Valid @RequestBody PatientDto dto) {
-        Patient entity = mapper.map(dto, Patient.class);
+        Patient entity = mapper.toEntity(dto);
         Patient saved = patientService.createPatient(entity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, PatientDto.class));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PatientDto> get(@PathVariable String id) {
         Patient patient = patientService.getPatientById(id);
-        return ResponseEntity.ok(mapper.map(patient, PatientDto.class));
+        return ResponseEntity.ok(mapper.toDto(patient));
     }
 
     @GetMapping
@@ -48,23 +55,33 @@ public class PatientController {
                                                  @RequestParam(defaultValue = "10") int size,
                                                  @RequestParam(defaultValue = "createdAt") String sortBy,
                                                  @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(Patient.class, sortBy, sortDir);
         Page<Patient> result = patientService.getAllPatients(PageRequest.of(page, size, sort));
-        return ResponseEntity.ok(result.map(p -> mapper.map(p, PatientDto.class)));
+        return ResponseEntity.ok(result.map(mapper::toDto));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<PatientDto>> scroll(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                         @RequestParam(defaultValue = "desc") String sortDir,
+                                                         @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(Patient.class, sortBy, sortDir);
+        return ResponseEntity.ok(patientService.scrollPatients(sort, cursor, size, withTotal).map(mapper::toDto));
     }
 
     @GetMapping("/search")
     public List<PatientDto> search(@RequestParam String query) {
         return patientService.searchPatients(query)
-                .stream().map(p -> mapper.map(p, PatientDto.class)).collect(Collectors.toList());
+                .stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST','CLINIC_ASSISTANT')")
     public ResponseEntity<PatientDto> update(@PathVariable String id, @Valid @RequestBody PatientDto dto) {
-        Patient entity = mapper.map(dto, Patient.class);
+        Patient entity = mapper.toEntity(dto);
         Patient updated = patientService.updatePatient(id, entity);
-        return ResponseEntity.ok(mapper.map(updated, PatientDto.class));
+        return ResponseEntity.ok(mapper.toDto(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -84,11 +101,18 @@ public class PatientController {
     }
 
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportExcel() {
-        byte[] excelBytes = ExcelUtil.patientsToExcel(patientService.getAllPatients());
+    public ResponseEntity<StreamingResponseBody> exportExcel() {
+        StreamingResponseBody body = patientService::exportPatientsExcel;
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=patients.xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelBytes);
+                .body(body);
+    }
+
+    @PostMapping("/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob() {
+        ExportJobDto job = exportJobService.submit("patients", Map.of(), "patients.xlsx",
+                patientService::exportPatientsExcel);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
     }
 }
@@ -1,22 +1,27 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.PrescriptionMapper;
 import com.navident.clinic.model.Prescription;
 import com.navident.clinic.model.dto.PrescriptionDto;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.ExportJobService;
 import com.navident.clinic.service.PrescriptionService;
-import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,18 +32,20 @@ import java.util.stream.Collectors;
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
-    private final ModelMapper mapper;
+    private final ExportJobService exportJobService;
+    private final PrescriptionMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRATOR','CHIEF_DENTIST')")
     public ResponseEntity<PrescriptionDto> create(@Valid @RequestBody PrescriptionDto dto) {
-        Prescription saved = prescriptionService.createPrescription(mapper.map(dto, Prescription.class));
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, PrescriptionDto.class));
+        Prescription saved = prescriptionService.createPrescription(mapper.toEntity(dto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PrescriptionDto> get(@PathVariable String id) {
-        return ResponseEntity.ok(mapper.map(prescriptionService.getPrescriptionById(id), PrescriptionDto.class));
+        return ResponseEntity.ok(mapper.toDto(prescriptionService.getPrescriptionById(id)));
     }
 
     @GetMapping
@@ -46,23 +53,33 @@ public class PrescriptionController {
                                       @RequestParam(defaultValue = "10") int size,
                                       @RequestParam(defaultValue = "prescriptionDate") String sortBy,
                                       @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        return prescriptionService.getAllPrescriptions(PageRequest.of(page, size, sort)).map(p -> mapper.map(p, PrescriptionDto.class));
+        Sort sort = sortableFields.resolve(Prescription.class, sortBy, sortDir);
+        return prescriptionService.getAllPrescriptions(PageRequest.of(page, size, sort)).map(mapper::toDto);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPage<PrescriptionDto> scroll(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(defaultValue = "prescriptionDate") String sortBy,
+                                              @RequestParam(defaultValue = "desc") String sortDir,
+                                              @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(Prescription.class, sortBy, sortDir);
+        return prescriptionService.scrollPrescriptions(sort, cursor, size, withTotal).map(mapper::toDto);
     }
 
     @GetMapping("/search")
     public List<PrescriptionDto> search(@RequestParam String query) {
-        return prescriptionService.searchPrescriptions(query).stream().map(p -> mapper.map(p, PrescriptionDto.class)).collect(Collectors.toList());
+        return prescriptionService.searchPrescriptions(query).stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @GetMapping("/patient/{patientId}")
     public List<PrescriptionDto> byPatient(@PathVariable String patientId) {
-        return prescriptionService.getPrescriptionsByPatientId(patientId).stream().map(p -> mapper.map(p, PrescriptionDto.class)).collect(Collectors.toList());
+        return prescriptionService.getPrescriptionsByPatientId(patientId).stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<PrescriptionDto> update(@PathVariable String id, @Valid @RequestBody PrescriptionDto dto) {
-        return ResponseEntity.ok(mapper.map(prescriptionService.updatePrescription(id, mapper.map(dto, Prescription.class)), PrescriptionDto.class));
+        return ResponseEntity.ok(mapper.toDto(prescriptionService.updatePrescription(id, mapper.toEntity(dto))));
     }
 
     @DeleteMapping("/{id}")
@@ -80,12 +97,21 @@ public class PrescriptionController {
     }
 
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportExcel(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
-                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
-        byte[] excel = prescriptionService.exportAllPrescriptionsExcel(start, end);
+    public ResponseEntity<StreamingResponseBody> exportExcel(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        StreamingResponseBody excel = out -> prescriptionService.exportAllPrescriptionsExcel(start, end, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=prescriptions.xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
                 .body(excel);
     }
+
+    @PostMapping("/export/excel/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        ExportJobDto job = exportJobService.submit("prescriptions", Map.of("start", start, "end", end),
+                "prescriptions.xlsx",
+                out -> prescriptionService.exportAllPrescriptionsExcel(start, end, out));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
 }
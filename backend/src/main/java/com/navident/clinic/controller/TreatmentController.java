@@ -1,12 +1,14 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.mapper.TreatmentMapper;
 import com.navident.clinic.model.Treatment;
 import com.navident.clinic.model.dto.TreatmentDto;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.service.TreatmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,17 +25,18 @@ import java.util.stream.Collectors;
 public class TreatmentController {
 
     private final TreatmentService treatmentService;
-    private final ModelMapper mapper;
+    private final TreatmentMapper mapper;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     public ResponseEntity<TreatmentDto> create(@Valid @RequestBody TreatmentDto dto) {
-        Treatment saved = treatmentService.createTreatment(mapper.map(dto, Treatment.class));
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.map(saved, TreatmentDto.class));
+        Treatment saved = treatmentService.createTreatment(mapper.toEntity(dto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TreatmentDto> get(@PathVariable String id) {
-        return ResponseEntity.ok(mapper.map(treatmentService.getTreatmentById(id), TreatmentDto.class));
+        return ResponseEntity.ok(mapper.toDto(treatmentService.getTreatmentById(id)));
     }
 
     @GetMapping
@@ -41,24 +44,39 @@ public class TreatmentController {
                                    @RequestParam(defaultValue = "10") int size,
                                    @RequestParam(defaultValue = "treatmentName") String sortBy,
                                    @RequestParam(defaultValue = "asc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(Treatment.class, sortBy, sortDir);
         return treatmentService.getAllTreatments(PageRequest.of(page, size, sort))
-                .map(t -> mapper.map(t, TreatmentDto.class));
+                .map(mapper::toDto);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPage<TreatmentDto> scroll(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "10") int size,
+                                           @RequestParam(defaultValue = "treatmentName") String sortBy,
+                                           @RequestParam(defaultValue = "asc") String sortDir,
+                                           @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(Treatment.class, sortBy, sortDir);
+        return treatmentService.scrollTreatments(sort, cursor, size, withTotal).map(mapper::toDto);
     }
 
     @GetMapping("/search")
     public List<TreatmentDto> search(@RequestParam String query) {
-        return treatmentService.searchTreatments(query).stream().map(t -> mapper.map(t, TreatmentDto.class)).collect(Collectors.toList());
+        return treatmentService.searchTreatments(query).stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
     @GetMapping("/active")
     public List<TreatmentDto> active() {
-        return treatmentService.listActiveTreatments().stream().map(t -> mapper.map(t, TreatmentDto.class)).collect(Collectors.toList());
+        return treatmentService.listActiveTreatments().stream().map(mapper::toDto).collect(Collectors.toList());
+    }
+
+    @GetMapping("/categories")
+    public List<String> categories() {
+        return treatmentService.getAllCategories();
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TreatmentDto> update(@PathVariable String id, @Valid @RequestBody TreatmentDto dto) {
-        return ResponseEntity.ok(mapper.map(treatmentService.updateTreatment(id, mapper.map(dto, Treatment.class)), TreatmentDto.class));
+        return ResponseEntity.ok(mapper.toDto(treatmentService.updateTreatment(id, mapper.toEntity(dto))));
     }
 
     @DeleteMapping("/{id}")
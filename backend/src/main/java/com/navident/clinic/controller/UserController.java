@@ -1,6 +1,8 @@
 package com.navident.clinic.controller;
 
+import com.navident.clinic.config.SortableFieldRegistry;
 import com.navident.clinic.model.User;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,7 @@ public class UserController {
 
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final SortableFieldRegistry sortableFields;
 
     @PostMapping
     public ResponseEntity<User> create(@Valid @RequestBody User user) {
@@ -53,13 +56,25 @@ public class UserController {
                                            @RequestParam(defaultValue = "10") int size,
                                            @RequestParam(defaultValue = "createdAt") String sortBy,
                                            @RequestParam(defaultValue = "desc") String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortableFields.resolve(User.class, sortBy, sortDir);
         Page<User> result = userService.getAllUsers(PageRequest.of(page, size, sort));
         // Remove passwords from response
         result.getContent().forEach(user -> user.setPassword(null));
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<User>> scroll(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                   @RequestParam(defaultValue = "desc") String sortDir,
+                                                   @RequestParam(defaultValue = "false") boolean withTotal) {
+        Sort sort = sortableFields.resolve(User.class, sortBy, sortDir);
+        CursorPage<User> result = userService.scrollUsers(sort, cursor, size, withTotal);
+        result.getContent().forEach(user -> user.setPassword(null));
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/search")
     public List<User> search(@RequestParam String query) {
         List<User> users = userService.searchUsers(query);
@@ -83,14 +98,9 @@ public class UserController {
     // ✅ NEW ENDPOINT: Toggle User Active Status
     @PutMapping("/{id}/toggle-active")
     public ResponseEntity<User> toggleActiveStatus(@PathVariable String id) {
-        User user = userService.getUserById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Toggle the active status
-        user.setActive(!user.isActive());
-        User updated = userService.updateUser(id, user);
+        User updated = userService.toggleActive(id);
         
-        log.info("User {} active status changed to: {}", user.getUsername(), user.isActive());
+        log.info("User {} active status changed to: {}", updated.getUsername(), updated.isActive());
         
         updated.setPassword(null);
         return ResponseEntity.ok(updated);
@@ -103,10 +113,7 @@ public class UserController {
             return ResponseEntity.badRequest().build();
         }
         
-        User user = userService.getUserById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userService.updateUser(id, user);
+        userService.changePassword(id, passwordEncoder.encode(newPassword));
         
         return ResponseEntity.ok().build();
     }
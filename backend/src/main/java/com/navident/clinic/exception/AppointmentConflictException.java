@@ -0,0 +1,11 @@
+package com.navident.clinic.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class AppointmentConflictException extends RuntimeException {
+    public AppointmentConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.dto.AppointmentDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AppointmentMapper implements DtoMapper<Appointment, AppointmentDto> {
+
+    @Override
+    public AppointmentDto toDto(Appointment entity) {
+        if (entity == null) return null;
+        AppointmentDto dto = new AppointmentDto();
+        dto.setId(entity.getId());
+        dto.setPatientId(entity.getPatientId());
+        dto.setPatientName(entity.getPatientName());
+        dto.setDentistId(entity.getDentistId());
+        dto.setDentistName(entity.getDentistName());
+        dto.setAppointmentDate(entity.getAppointmentDate());
+        dto.setAppointmentTime(entity.getAppointmentTime());
+        dto.setStartAt(entity.getStartAt());
+        dto.setDurationMinutes(entity.getDurationMinutes());
+        dto.setChairId(entity.getChairId());
+        dto.setSeriesId(entity.getSeriesId());
+        dto.setSeriesIndex(entity.getSeriesIndex());
+        dto.setStatus(entity.getStatus());
+        dto.setNotes(entity.getNotes());
+        return dto;
+    }
+
+    @Override
+    public Appointment toEntity(AppointmentDto dto) {
+        if (dto == null) return null;
+        Appointment entity = new Appointment();
+        entity.setId(dto.getId());
+        entity.setPatientId(dto.getPatientId());
+        entity.setPatientName(dto.getPatientName());
+        entity.setDentistId(dto.getDentistId());
+        entity.setDentistName(dto.getDentistName());
+        entity.setAppointmentDate(dto.getAppointmentDate());
+        entity.setAppointmentTime(dto.getAppointmentTime());
+        entity.setStartAt(dto.getStartAt());
+        entity.setDurationMinutes(dto.getDurationMinutes());
+        entity.setChairId(dto.getChairId());
+        entity.setStatus(dto.getStatus());
+        entity.setNotes(dto.getNotes());
+        return entity;
+    }
+}
@@ -0,0 +1,45 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.Bill;
+import com.navident.clinic.model.dto.BillDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BillMapper implements DtoMapper<Bill, BillDto> {
+
+    @Override
+    public BillDto toDto(Bill entity) {
+        if (entity == null) return null;
+        BillDto dto = new BillDto();
+        dto.setId(entity.getId());
+        dto.setBillId(entity.getBillId());
+        dto.setPatientId(entity.getPatientId());
+        dto.setPatientName(entity.getPatientName());
+        dto.setDentistId(entity.getDentistId());
+        dto.setDentistName(entity.getDentistName());
+        dto.setBillDate(entity.getBillDate());
+        dto.setAmountDue(entity.getAmountDue());
+        dto.setAmountPaid(entity.getAmountPaid());
+        dto.setDueDate(entity.getDueDate());
+        dto.setPaymentStatus(entity.getPaymentStatus());
+        return dto;
+    }
+
+    @Override
+    public Bill toEntity(BillDto dto) {
+        if (dto == null) return null;
+        Bill entity = new Bill();
+        entity.setId(dto.getId());
+        entity.setBillId(dto.getBillId());
+        entity.setPatientId(dto.getPatientId());
+        entity.setPatientName(dto.getPatientName());
+        entity.setDentistId(dto.getDentistId());
+        entity.setDentistName(dto.getDentistName());
+        entity.setBillDate(dto.getBillDate());
+        entity.setAmountDue(dto.getAmountDue());
+        entity.setAmountPaid(dto.getAmountPaid());
+        entity.setDueDate(dto.getDueDate());
+        entity.setPaymentStatus(dto.getPaymentStatus());
+        return entity;
+    }
+}
@@ -0,0 +1,47 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.ConsultantDentist;
+import com.navident.clinic.model.dto.DentistDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DentistMapper implements DtoMapper<ConsultantDentist, DentistDto> {
+
+    @Override
+    public DentistDto toDto(ConsultantDentist entity) {
+        if (entity == null) return null;
+        DentistDto dto = new DentistDto();
+        dto.setId(entity.getId());
+        dto.setFirstName(entity.getFirstName());
+        dto.setLastName(entity.getLastName());
+        dto.setLicenseNumber(entity.getLicenseNumber());
+        dto.setEmail(entity.getEmail());
+        dto.setMobileNumber(entity.getMobileNumber());
+        dto.setSpecializations(entity.getSpecializations());
+        dto.setActive(entity.isActive());
+        dto.setChiefDentist(entity.isChiefDentist());
+        dto.setQualification(entity.getQualification());
+        dto.setExperienceYears(entity.getExperienceYears());
+        dto.setConsultationFee(entity.getConsultationFee());
+        return dto;
+    }
+
+    @Override
+    public ConsultantDentist toEntity(DentistDto dto) {
+        if (dto == null) return null;
+        ConsultantDentist entity = new ConsultantDentist();
+        entity.setId(dto.getId());
+        entity.setFirstName(dto.getFirstName());
+        entity.setLastName(dto.getLastName());
+        entity.setLicenseNumber(dto.getLicenseNumber());
+        entity.setEmail(dto.getEmail());
+        entity.setMobileNumber(dto.getMobileNumber());
+        entity.setSpecializations(dto.getSpecializations());
+        entity.setActive(dto.isActive());
+        entity.setChiefDentist(dto.isChiefDentist());
+        entity.setQualification(dto.getQualification());
+        entity.setExperienceYears(dto.getExperienceYears());
+        entity.setConsultationFee(dto.getConsultationFee());
+        return entity;
+    }
+}
@@ -0,0 +1,10 @@
+package com.navident.clinic.mapper;
+
+// Hand-written entity <-> DTO copies used by the controllers instead of ModelMapper's reflective matching.
+// A null source maps to null.
+public interface DtoMapper<E, D> {
+
+    D toDto(E entity);
+
+    E toEntity(D dto);
+}
@@ -0,0 +1,39 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.model.dto.FinanceDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FinanceMapper implements DtoMapper<ClinicFinance, FinanceDto> {
+
+    @Override
+    public FinanceDto toDto(ClinicFinance entity) {
+        if (entity == null) return null;
+        FinanceDto dto = new FinanceDto();
+        dto.setId(entity.getId());
+        dto.setTransactionDate(entity.getTransactionDate());
+        dto.setCategory(entity.getCategory());
+        dto.setType(entity.getType());
+        dto.setAmount(entity.getAmount());
+        dto.setVendorName(entity.getVendorName());
+        dto.setDescription(entity.getDescription());
+        dto.setStatus(entity.getStatus());
+        return dto;
+    }
+
+    @Override
+    public ClinicFinance toEntity(FinanceDto dto) {
+        if (dto == null) return null;
+        ClinicFinance entity = new ClinicFinance();
+        entity.setId(dto.getId());
+        entity.setTransactionDate(dto.getTransactionDate());
+        entity.setCategory(dto.getCategory());
+        entity.setType(dto.getType());
+        entity.setAmount(dto.getAmount());
+        entity.setVendorName(dto.getVendorName());
+        entity.setDescription(dto.getDescription());
+        entity.setStatus(dto.getStatus());
+        return entity;
+    }
+}
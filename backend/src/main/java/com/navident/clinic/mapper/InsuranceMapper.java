@@ -0,0 +1,47 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.Insurance;
+import com.navident.clinic.model.dto.InsuranceDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InsuranceMapper implements DtoMapper<Insurance, InsuranceDto> {
+
+    @Override
+    public InsuranceDto toDto(Insurance entity) {
+        if (entity == null) return null;
+        InsuranceDto dto = new InsuranceDto();
+        dto.setId(entity.getId());
+        dto.setPatientId(entity.getPatientId());
+        dto.setAgencyName(entity.getAgencyName());
+        dto.setPolicyNumber(entity.getPolicyNumber());
+        dto.setPolicyEndDate(entity.getPolicyEndDate());
+        dto.setActive(entity.isActive());
+        dto.setClaimSubmitted(entity.isClaimSubmitted());
+        dto.setClaimApproved(entity.isClaimApproved());
+        dto.setClaimAmount(entity.getClaimAmount());
+        dto.setApprovedClaimAmount(entity.getApprovedClaimAmount());
+        dto.setStatus(entity.getStatus());
+        dto.setTreatmentDescription(entity.getTreatmentDescription());
+        return dto;
+    }
+
+    @Override
+    public Insurance toEntity(InsuranceDto dto) {
+        if (dto == null) return null;
+        Insurance entity = new Insurance();
+        entity.setId(dto.getId());
+        entity.setPatientId(dto.getPatientId());
+        entity.setAgencyName(dto.getAgencyName());
+        entity.setPolicyNumber(dto.getPolicyNumber());
+        entity.setPolicyEndDate(dto.getPolicyEndDate());
+        entity.setActive(dto.isActive());
+        entity.setClaimSubmitted(dto.isClaimSubmitted());
+        entity.setClaimApproved(dto.isClaimApproved());
+        entity.setClaimAmount(dto.getClaimAmount());
+        entity.setApprovedClaimAmount(dto.getApprovedClaimAmount());
+        entity.setStatus(dto.getStatus());
+        entity.setTreatmentDescription(dto.getTreatmentDescription());
+        return entity;
+    }
+}
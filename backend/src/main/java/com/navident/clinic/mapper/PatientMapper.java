@@ -0,0 +1,59 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.Patient;
+import com.navident.clinic.model.dto.PatientDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PatientMapper implements DtoMapper<Patient, PatientDto> {
+
+    @Override
+    public PatientDto toDto(Patient entity) {
+        if (entity == null) return null;
+        PatientDto dto = new PatientDto();
+        dto.setId(entity.getId());
+        dto.setFirstName(entity.getFirstName());
+        dto.setLastName(entity.getLastName());
+        dto.setEmail(entity.getEmail());
+        dto.setMobileNumber(entity.getMobileNumber());
+        dto.setGender(entity.getGender());
+        dto.setBloodGroup(entity.getBloodGroup());
+        dto.setDateOfBirth(entity.getDateOfBirth());
+        dto.setAllergies(entity.getAllergies());
+        dto.setAddress(toDto(entity.getAddress()));
+        return dto;
+    }
+
+    @Override
+    public Patient toEntity(PatientDto dto) {
+        if (dto == null) return null;
+        Patient entity = new Patient();
+        entity.setId(dto.getId());
+        entity.setFirstName(dto.getFirstName());
+        entity.setLastName(dto.getLastName());
+        entity.setEmail(dto.getEmail());
+        entity.setMobileNumber(dto.getMobileNumber());
+        entity.setGender(dto.getGender());
+        entity.setBloodGroup(dto.getBloodGroup());
+        entity.setDateOfBirth(dto.getDateOfBirth());
+        entity.setAllergies(dto.getAllergies());
+        entity.setAddress(toEntity(dto.getAddress()));
+        return entity;
+    }
+
+    private PatientDto.AddressDto toDto(Patient.Address address) {
+        if (address == null) return null;
+        PatientDto.AddressDto dto = new PatientDto.AddressDto();
+        dto.setStreet(address.getStreet());
+        dto.setCity(address.getCity());
+        dto.setState(address.getState());
+        dto.setPostalCode(address.getPostalCode());
+        dto.setCountry(address.getCountry());
+        return dto;
+    }
+
+    private Patient.Address toEntity(PatientDto.AddressDto dto) {
+        if (dto == null) return null;
+        return new Patient.Address(dto.getStreet(), dto.getCity(), dto.getState(), dto.getPostalCode(), dto.getCountry());
+    }
+}
@@ -0,0 +1,45 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.Prescription;
+import com.navident.clinic.model.dto.PrescriptionDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PrescriptionMapper implements DtoMapper<Prescription, PrescriptionDto> {
+
+    @Override
+    public PrescriptionDto toDto(Prescription entity) {
+        if (entity == null) return null;
+        PrescriptionDto dto = new PrescriptionDto();
+        dto.setId(entity.getId());
+        dto.setPatientId(entity.getPatientId());
+        dto.setPatientName(entity.getPatientName());
+        dto.setDentistId(entity.getDentistId());
+        dto.setDentistName(entity.getDentistName());
+        dto.setPrescriptionDate(entity.getPrescriptionDate());
+        dto.setDiagnosis(entity.getDiagnosis());
+        dto.setMedications(entity.getMedications());
+        dto.setNotes(entity.getNotes());
+        dto.setRequiresFollowUp(entity.isRequiresFollowUp());
+        dto.setStatus(entity.getStatus());
+        return dto;
+    }
+
+    @Override
+    public Prescription toEntity(PrescriptionDto dto) {
+        if (dto == null) return null;
+        Prescription entity = new Prescription();
+        entity.setId(dto.getId());
+        entity.setPatientId(dto.getPatientId());
+        entity.setPatientName(dto.getPatientName());
+        entity.setDentistId(dto.getDentistId());
+        entity.setDentistName(dto.getDentistName());
+        entity.setPrescriptionDate(dto.getPrescriptionDate());
+        entity.setDiagnosis(dto.getDiagnosis());
+        entity.setMedications(dto.getMedications());
+        entity.setNotes(dto.getNotes());
+        entity.setRequiresFollowUp(dto.isRequiresFollowUp());
+        entity.setStatus(dto.getStatus());
+        return entity;
+    }
+}
@@ -0,0 +1,33 @@
+package com.navident.clinic.mapper;
+
+import com.navident.clinic.model.Treatment;
+import com.navident.clinic.model.dto.TreatmentDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TreatmentMapper implements DtoMapper<Treatment, TreatmentDto> {
+
+    @Override
+    public TreatmentDto toDto(Treatment entity) {
+        if (entity == null) return null;
+        TreatmentDto dto = new TreatmentDto();
+        dto.setId(entity.getId());
+        dto.setTreatmentName(entity.getTreatmentName());
+        dto.setCategory(entity.getCategory());
+        dto.setDescription(entity.getDescription());
+        dto.setAvailableForBooking(entity.isAvailableForBooking());
+        return dto;
+    }
+
+    @Override
+    public Treatment toEntity(TreatmentDto dto) {
+        if (dto == null) return null;
+        Treatment entity = new Treatment();
+        entity.setId(dto.getId());
+        entity.setTreatmentName(dto.getTreatmentName());
+        entity.setCategory(dto.getCategory());
+        entity.setDescription(dto.getDescription());
+        entity.setAvailableForBooking(dto.isAvailableForBooking());
+        return entity;
+    }
+}
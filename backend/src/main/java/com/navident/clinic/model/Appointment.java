@@ -21,6 +21,11 @@ public class Appointment {
     private String dentistName;
     private LocalDate appointmentDate;
     private String appointmentTime;
+    private LocalDateTime startAt; // structured start; appointmentDate/appointmentTime are kept in step with it
+    private Integer durationMinutes;
+    private String chairId; // chair or treatment room
+    private String seriesId; // set on occurrences of a recurring series
+    private Integer seriesIndex; // 0-based position in the series
     private String status; // e.g. SCHEDULED, COMPLETED, CANCELLED
     private String notes;
 
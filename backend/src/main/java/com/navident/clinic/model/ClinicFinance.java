@@ -2,7 +2,9 @@ package com.navident.clinic.model;
 
 import lombok.*;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,9 +19,12 @@ public class ClinicFinance {
     @Id
     private String id;
     private LocalDate transactionDate;
+    @Indexed
     private String category; // REVENUE, EXPENSE
+    @Indexed
     private String type; // Consultation, Supplies, Salary, etc.
     private BigDecimal amount;
+    @Indexed
     private String vendorName;
     private String description;
     private String status;
@@ -28,4 +33,7 @@ public class ClinicFinance {
     private LocalDateTime createdAt;
     @LastModifiedDate
     private LocalDateTime updatedAt;
+
+    @TextScore
+    private Float score; // populated by full-text searches only
 }
@@ -0,0 +1,33 @@
+package com.navident.clinic.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One document per day x category x type, maintained by FinanceRollupService
+@Data
+@Document(collection = "finance_daily_rollups")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FinanceDailyRollup {
+    @Id
+    private String id; // yyyy-MM-dd|category|type
+    private LocalDate date;
+    private String category;
+    private String type;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal sum;
+    private long count;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal min;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal max;
+    private LocalDateTime updatedAt;
+}
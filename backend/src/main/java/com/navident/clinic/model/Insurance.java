@@ -2,6 +2,7 @@ package com.navident.clinic.model;
 
 import lombok.*;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -17,6 +18,7 @@ public class Insurance {
     @Id
     private String id;
     private String patientId;
+    @Indexed
     private String agencyName;
     private String policyNumber;
     private LocalDate policyEndDate;
@@ -2,6 +2,7 @@ package com.navident.clinic.model;
 
 import lombok.*;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -15,6 +16,7 @@ public class Treatment {
     @Id
     private String id;
     private String treatmentName;
+    @Indexed
     private String category;
     private String description;
     private boolean availableForBooking;
@@ -32,6 +32,7 @@ public class User {
     private boolean locked = false; // << Add this line
     private boolean credentialsExpired = false; // password expiry
     private boolean accountExpired =false;
+    private long securityVersion; // bumped on password, role or status changes to revoke issued tokens
     @CreatedDate
     private LocalDateTime createdAt;
     @LastModifiedDate
@@ -2,6 +2,7 @@ package com.navident.clinic.model.dto;
 
 import lombok.Data;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 public class AppointmentDto {
@@ -12,6 +13,11 @@ public class AppointmentDto {
     private String dentistName;
     private LocalDate appointmentDate;
     private String appointmentTime;
+    private LocalDateTime startAt;
+    private Integer durationMinutes;
+    private String chairId;
+    private String seriesId;
+    private Integer seriesIndex;
     private String status;
     private String notes;
 }
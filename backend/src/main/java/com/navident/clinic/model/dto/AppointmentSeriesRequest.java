@@ -0,0 +1,16 @@
+package com.navident.clinic.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+// The template holds the first occurrence (startAt, or appointmentDate + appointmentTime) and the shared fields
+@Data
+public class AppointmentSeriesRequest {
+    @Valid
+    @NotNull
+    private AppointmentDto template;
+    @Valid
+    @NotNull
+    private RecurrenceRule recurrence;
+}
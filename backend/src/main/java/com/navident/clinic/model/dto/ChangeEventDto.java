@@ -0,0 +1,24 @@
+package com.navident.clinic.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// What changed, not the new state; screens refetch the entity (or their list) when they need the details
+@Data
+@Builder
+public class ChangeEventDto {
+    private String id; // <boot id>-<sequence>, also the SSE event id
+    @JsonIgnore
+    private long sequence;
+    private String entity; // appointment, bill
+    private String action; // CREATED, UPDATED, DELETED
+    private String entityId;
+    private String dentistId;
+    private LocalDate date;
+    private String status;
+    private LocalDateTime timestamp;
+}
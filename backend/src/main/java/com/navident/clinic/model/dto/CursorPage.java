@@ -0,0 +1,24 @@
+package com.navident.clinic.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// One keyset page: pass nextCursor back as ?cursor= to continue. totalElements is only filled when requested.
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> converter) {
+        List<R> mapped = content.stream().map(converter).collect(Collectors.toList());
+        return new CursorPage<>(mapped, size, hasNext, nextCursor, totalElements);
+    }
+}
@@ -0,0 +1,23 @@
+package com.navident.clinic.model.dto;
+
+import com.navident.clinic.service.ExportJobService;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ExportJobDto {
+    private String id;
+    private String type;
+    private ExportJobService.Status status;
+    private long rowsWritten;
+    private long sizeBytes;
+    private String fileName;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.navident.clinic.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class FreeSlotDto {
+    private String dentistId;
+    private String dentistName;
+    private LocalDate date;
+    private String startTime;
+    private String endTime;
+}
@@ -0,0 +1,28 @@
+package com.navident.clinic.model.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+// RRULE-like: FREQ, INTERVAL, COUNT, UNTIL and BYDAY. At least one of count and until is required.
+// With WEEKLY, weekdays lists the days of each week; with DAILY it filters days; with MONTHLY an
+// occurrence that falls on another day moves forward to the next listed weekday.
+@Data
+public class RecurrenceRule {
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    @NotNull
+    private Frequency frequency;
+    @Min(1)
+    @Max(365)
+    private int interval = 1;
+    @Min(1)
+    private Integer count;
+    private LocalDate until;
+    private List<DayOfWeek> weekdays;
+}
@@ -0,0 +1,18 @@
+package com.navident.clinic.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One move in a bulk reschedule; durationMinutes and chairId keep their current values when omitted
+@Data
+public class RescheduleRequest {
+    @NotBlank
+    private String appointmentId;
+    @NotNull
+    private LocalDateTime startAt;
+    private Integer durationMinutes;
+    private String chairId;
+}
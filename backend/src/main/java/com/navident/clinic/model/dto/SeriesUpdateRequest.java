@@ -0,0 +1,13 @@
+package com.navident.clinic.model.dto;
+
+import lombok.Data;
+
+// "This and following" edit; fields left null are not changed
+@Data
+public class SeriesUpdateRequest {
+    private String appointmentTime; // new time of day, dates stay as they are
+    private Integer durationMinutes;
+    private String chairId;
+    private String status;
+    private String notes;
+}
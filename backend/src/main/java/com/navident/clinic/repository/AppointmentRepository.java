@@ -2,14 +2,28 @@ package com.navident.clinic.repository;
 
 import com.navident.clinic.model.Appointment;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends MongoRepository<Appointment, String> {
     List<Appointment> findByPatientNameContainingIgnoreCaseOrDentistNameContainingIgnoreCase(String patientName, String dentistName);
     List<Appointment> findByAppointmentDateBetween(LocalDate start, LocalDate end);
+    @ReadPreference("secondaryPreferred")
+    Stream<Appointment> streamByAppointmentDateBetween(LocalDate start, LocalDate end);
     List<Appointment> findByPatientId(String patientId);
     List<Appointment> findByDentistId(String dentistId);
+    // Inclusive on both ends, unlike the derived Between queries
+    @Query("{ 'appointmentDate': { $gte: ?0, $lte: ?1 } }")
+    List<Appointment> findByDateRange(LocalDate start, LocalDate end);
+    @Query("{ 'dentistId': ?0, 'appointmentDate': { $gte: ?1, $lte: ?2 } }")
+    List<Appointment> findByDentistIdAndDateRange(String dentistId, LocalDate start, LocalDate end);
+    @Query("{ 'chairId': ?0, 'appointmentDate': { $gte: ?1, $lte: ?2 } }")
+    List<Appointment> findByChairIdAndDateRange(String chairId, LocalDate start, LocalDate end);
     List<Appointment> findByStatus(String status);
+    List<Appointment> findBySeriesIdOrderBySeriesIndexAsc(String seriesId);
+    List<Appointment> findBySeriesIdAndSeriesIndexGreaterThanEqualOrderBySeriesIndexAsc(String seriesId, int seriesIndex);
     List<Appointment> findByAppointmentDateGreaterThanEqualAndStatusIn(LocalDate date, List<String> status);
 }
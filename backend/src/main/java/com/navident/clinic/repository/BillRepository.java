@@ -2,13 +2,17 @@ package com.navident.clinic.repository;
 
 import com.navident.clinic.model.Bill;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BillRepository extends MongoRepository<Bill, String> {
     List<Bill> findByPatientNameContainingIgnoreCaseOrBillIdContainingIgnoreCase(String patientName, String billId);
     List<Bill> findByPatientId(String patientId);
+    @ReadPreference("secondaryPreferred")
+    Stream<Bill> streamByPatientId(String patientId);
     List<Bill> findByDentistId(String dentistId);
     List<Bill> findByPaymentStatus(String status);
     List<Bill> findByDueDateBeforeAndPaymentStatusNot(LocalDate date, String notStatus);
@@ -3,16 +3,31 @@ package com.navident.clinic.repository;
 import com.navident.clinic.model.ClinicFinance;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ClinicFinanceRepository extends MongoRepository<ClinicFinance, String> {
+public interface ClinicFinanceRepository extends MongoRepository<ClinicFinance, String>, ClinicFinanceRepositoryCustom {
     Page<ClinicFinance> findByCategory(String category, Pageable pageable);
     Page<ClinicFinance> findByType(String type, Pageable pageable);
     Page<ClinicFinance> findByCategoryAndType(String category, String type, Pageable pageable);
     List<ClinicFinance> findByType(String type);
     List<ClinicFinance> findByCategory(String category);
-    List<ClinicFinance> findByTransactionDateBetween(LocalDate start, LocalDate end);
+    // Inclusive on both ends, like the summary aggregations; the derived Between would drop the first and last day
+    @Query("{ 'transactionDate': { $gte: ?0, $lte: ?1 } }")
+    List<ClinicFinance> findByDateRange(LocalDate start, LocalDate end);
+    @ReadPreference("secondaryPreferred")
+    Page<ClinicFinance> findAllBy(TextCriteria criteria, Pageable pageable);
+
+    // Inclusive date range, only the columns the export writes, in date order
+    @Query(value = "{ 'transactionDate': { $gte: ?0, $lte: ?1 } }",
+            fields = "{ 'transactionDate': 1, 'category': 1, 'type': 1, 'amount': 1, 'vendorName': 1, 'description': 1, 'status': 1 }",
+            sort = "{ 'transactionDate': 1 }")
+    @ReadPreference("secondaryPreferred")
+    Stream<ClinicFinance> streamForExport(LocalDate start, LocalDate end);
 }
@@ -0,0 +1,13 @@
+package com.navident.clinic.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ClinicFinanceRepositoryCustom {
+    // Server-side $group totals keyed by category (REVENUE, EXPENSE), both dates inclusive
+    Map<String, BigDecimal> sumAmountByCategory(LocalDate start, LocalDate end);
+
+    // Server-side $group totals of one category keyed by type (Supplies, Salary, ...)
+    Map<String, BigDecimal> sumAmountByType(String category, LocalDate start, LocalDate end);
+}
@@ -0,0 +1,54 @@
+package com.navident.clinic.repository;
+
+import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.util.NumberUtil;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ClinicFinanceRepositoryCustomImpl implements ClinicFinanceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Map<String, BigDecimal> sumAmountByCategory(LocalDate start, LocalDate end) {
+        return sumAmountGroupedBy("category", Criteria.where("transactionDate").gte(start).lte(end));
+    }
+
+    @Override
+    public Map<String, BigDecimal> sumAmountByType(String category, LocalDate start, LocalDate end) {
+        return sumAmountGroupedBy("type", Criteria.where("transactionDate").gte(start).lte(end)
+                .and("category").is(category));
+    }
+
+    private Map<String, BigDecimal> sumAmountGroupedBy(String field, Criteria criteria) {
+        // amount may be stored as a string (Spring's default BigDecimal mapping) or as Decimal128,
+        // so normalise it with $toDecimal before summing
+        TypedAggregation<ClinicFinance> aggregation = Aggregation.newAggregation(ClinicFinance.class,
+                Aggregation.match(criteria),
+                Aggregation.group(field).sum(ConvertOperators.ToDecimal.toDecimal("$amount")).as("total"));
+        return decodeTotals(mongoTemplate.aggregate(aggregation, Document.class));
+    }
+
+    // Public and static so the finance benchmark measures this exact decoding
+    public static Map<String, BigDecimal> decodeTotals(Iterable<Document> groupResults) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Document doc : groupResults) {
+            Object key = doc.get("_id");
+            if (key != null) {
+                totals.put(key.toString(), NumberUtil.toBigDecimal(doc.get("total")));
+            }
+        }
+        return totals;
+    }
+}
@@ -2,12 +2,16 @@ package com.navident.clinic.repository;
 
 import com.navident.clinic.model.ConsultantDentist;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface DentistRepository extends MongoRepository<ConsultantDentist, String> {
     List<ConsultantDentist> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
     List<ConsultantDentist> findByActiveTrue();
+    @ReadPreference("secondaryPreferred")
+    Stream<ConsultantDentist> streamAllBy();
     List<ConsultantDentist> findByChiefDentistTrue(); // NEW METHOD
     List<ConsultantDentist> findBySpecializationsContaining(String specialization);
     boolean existsByMobileNumber(String mobileNumber);
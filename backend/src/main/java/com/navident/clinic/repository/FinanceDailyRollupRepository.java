@@ -0,0 +1,13 @@
+package com.navident.clinic.repository;
+
+import com.navident.clinic.model.FinanceDailyRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface FinanceDailyRollupRepository extends MongoRepository<FinanceDailyRollup, String> {
+    @Query(value = "{ 'date': { $gte: ?0, $lte: ?1 } }", fields = "{ 'category': 1, 'sum': 1 }")
+    List<FinanceDailyRollup> findTotalsByDateRange(LocalDate start, LocalDate end);
+}
@@ -2,11 +2,15 @@ package com.navident.clinic.repository;
 
 import com.navident.clinic.model.Insurance;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InsuranceRepository extends MongoRepository<Insurance, String> {
     List<Insurance> findByPatientId(String patientId);
+    @ReadPreference("secondaryPreferred")
+    Stream<Insurance> streamByPatientId(String patientId);
     List<Insurance> findByAgencyNameContainingIgnoreCase(String agencyName);
     List<Insurance> findByAgencyName(String agencyName);
     List<Insurance> findByActiveTrue();
@@ -2,10 +2,14 @@ package com.navident.clinic.repository;
 
 import com.navident.clinic.model.Patient;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends MongoRepository<Patient, String> {
     List<Patient> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
+    @ReadPreference("secondaryPreferred")
+    Stream<Patient> streamAllBy();
     List<Patient> findByAddress_City(String city);
     List<Patient> findByMobileNumber(String mobileNumber);
     boolean existsByMobileNumber(String mobileNumber);
@@ -2,14 +2,22 @@ package com.navident.clinic.repository;
 
 import com.navident.clinic.model.Prescription;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PrescriptionRepository extends MongoRepository<Prescription, String> {
     List<Prescription> findByPatientNameContainingIgnoreCaseOrDentistNameContainingIgnoreCase(String patientName, String dentistName);
     List<Prescription> findByPatientId(String patientId);
     List<Prescription> findByDentistId(String dentistId);
     List<Prescription> findByPrescriptionDateBetween(LocalDate start, LocalDate end);
+    @ReadPreference("secondaryPreferred")
+    Stream<Prescription> streamByPatientId(String patientId);
+    @ReadPreference("secondaryPreferred")
+    Stream<Prescription> streamByPrescriptionDateBetween(LocalDate start, LocalDate end);
+    @ReadPreference("secondaryPreferred")
+    Stream<Prescription> streamAllBy();
     List<Prescription> findByStatus(String status);
     List<Prescription> findByRequiresFollowUpTrue();
 }
@@ -0,0 +1,73 @@
+package com.navident.clinic.security;
+
+import com.navident.clinic.model.User;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+// Authenticated principal carrying what sign-in responses and tokens need, so they never re-read the user
+@Getter
+public class ClinicUserDetails implements UserDetails, CredentialsContainer {
+
+    private final String id;
+    private final String username;
+    private String password;
+    private final String email;
+    private final String role;
+    private final long securityVersion;
+    private final boolean active;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public ClinicUserDetails(String id, String username, String password, String email, String role,
+                             long securityVersion, boolean active) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.email = email;
+        this.role = role;
+        this.securityVersion = securityVersion;
+        this.active = active;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public static ClinicUserDetails from(User user) {
+        return new ClinicUserDetails(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(),
+                user.getRole(), user.getSecurityVersion(), user.isActive());
+    }
+
+    // Built from verified token claims; carries no password
+    public static ClinicUserDetails from(VerifiedToken token) {
+        return new ClinicUserDetails(token.getUserId(), token.getSubject(), "", token.getEmail(),
+                token.getRole(), token.getSecurityVersion(), true);
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return active;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
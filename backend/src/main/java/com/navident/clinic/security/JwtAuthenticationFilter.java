@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +23,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsServiceImpl userDetailsService;
+    private final SecurityVersionRegistry securityVersions;
+    private final StreamTicketRegistry streamTickets;
+
+    // When enabled, tokens carrying id/role/version claims are trusted without loading the user
+    @Value("${app.jwt.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,10 +37,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            String ticket = jwt == null ? getStreamTicketFromRequest(request) : null;
 
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            VerifiedToken token = jwt != null ? tokenProvider.verifyToken(jwt) : null;
+            String ticketUser = ticket != null ? streamTickets.redeem(ticket) : null;
+            if (token != null || ticketUser != null) {
+                UserDetails userDetails;
+                if (token == null) {
+                    userDetails = userDetailsService.loadCachedUserByUsername(ticketUser);
+                } else {
+                    userDetails = statelessAuth && token.hasIdentityClaims()
+                            ? userFromClaims(token)
+                            : userDetailsService.loadCachedUserByUsername(token.getSubject());
+                }
+                if (userDetails == null) {
+                    log.debug("Rejected revoked token for user {}", token != null ? token.getSubject() : ticketUser);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -49,6 +70,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Null when the token's security version has been superseded; unknown users fall back to the database
+    private UserDetails userFromClaims(VerifiedToken token) {
+        Long current = securityVersions.currentVersion(token.getUserId());
+        if (current == null) {
+            return userDetailsService.loadCachedUserByUsername(token.getSubject());
+        }
+        if (token.getSecurityVersion() < current) {
+            return null;
+        }
+        return ClinicUserDetails.from(token);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -56,4 +89,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    // Only the event streams take a credential from the URL, and only a one-time ticket, never the JWT.
+    // Tickets are GET-only, so one cannot be used to POST for the next ticket.
+    private String getStreamTicketFromRequest(HttpServletRequest request) {
+        if ("GET".equals(request.getMethod()) && request.getServletPath().startsWith("/api/events/")) {
+            return request.getParameter("ticket");
+        }
+        return null;
+    }
 }
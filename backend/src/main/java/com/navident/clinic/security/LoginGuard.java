@@ -0,0 +1,177 @@
+package com.navident.clinic.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navident.clinic.exception.RateLimitExceededException;
+import com.navident.clinic.exception.ServiceBusyException;
+import com.navident.clinic.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt sign-in checks on a small bounded pool so login bursts cannot starve request threads,
+// behind per-username and per-IP token buckets that throttle repeated failures.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginGuard {
+
+    private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.login.threads:2}")
+    private int threads;
+
+    @Value("${app.auth.login.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.auth.login.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${app.auth.login.retry-after-seconds:2}")
+    private long busyRetryAfterSeconds;
+
+    @Value("${app.auth.login.username-attempts:5}")
+    private int usernameAttempts;
+
+    @Value("${app.auth.login.ip-attempts:20}")
+    private int ipAttempts;
+
+    @Value("${app.auth.login.refill-period-seconds:60}")
+    private long refillPeriodSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, TokenBucket> usernameBuckets;
+    private Cache<String, TokenBucket> ipBuckets;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNo = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "login-verify-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        // Idle buckets have refilled completely, so dropping them after one period loses nothing
+        usernameBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofSeconds(refillPeriodSeconds))
+                .build();
+        ipBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofSeconds(refillPeriodSeconds))
+                .build();
+        verifyTimer = Timer.builder("auth.login.verify")
+                .description("Time spent verifying sign-in credentials")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.login.queue", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Authentication authenticate(String username, String password, String clientIp) {
+        TokenBucket userBucket = usernameBuckets.get(username.toLowerCase(), k -> newBucket(usernameAttempts));
+        TokenBucket ipBucket = ipBuckets.get(clientIp, k -> newBucket(ipAttempts));
+        if (!userBucket.tryConsume()) {
+            throw rateLimited("username", userBucket);
+        }
+        if (!ipBucket.tryConsume()) {
+            userBucket.refund();
+            throw rateLimited("ip", ipBucket);
+        }
+
+        // Fail fast when the backlog cannot be verified in time, instead of parking a request thread until the timeout
+        if (expectedWaitMs() > timeoutMs) {
+            userBucket.refund();
+            ipBucket.refund();
+            meterRegistry.counter("auth.login.rejected", "reason", "busy").increment();
+            throw new ServiceBusyException("Too many sign-in attempts in progress, please retry", busyRetryAfterSeconds);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> {
+                // The caller has already given up, so don't spend a BCrypt round on it
+                if (System.nanoTime() - deadline > 0) {
+                    throw new CancellationException("Sign-in verification started after its deadline");
+                }
+                return verifyTimer.recordCallable(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(username, password)));
+            });
+        } catch (RejectedExecutionException e) {
+            userBucket.refund();
+            ipBucket.refund();
+            meterRegistry.counter("auth.login.rejected", "reason", "busy").increment();
+            throw new ServiceBusyException("Too many sign-in attempts in progress, please retry", busyRetryAfterSeconds);
+        }
+
+        Authentication authentication;
+        try {
+            authentication = await(result, deadline);
+        } catch (ServiceBusyException e) {
+            // A timeout says nothing about the credentials, so it must not count against the limits
+            userBucket.refund();
+            ipBucket.refund();
+            throw e;
+        }
+        // Only failures count against the limits
+        userBucket.refund();
+        ipBucket.refund();
+        return authentication;
+    }
+
+    // Queued attempts ahead of this one, spread over the pool, at the observed mean verification time
+    private double expectedWaitMs() {
+        return executor.getQueue().size() * verifyTimer.mean(TimeUnit.MILLISECONDS) / threads;
+    }
+
+    private Authentication await(Future<Authentication> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException authEx) {
+                throw authEx;
+            }
+            throw new IllegalStateException("Sign-in verification failed", e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            meterRegistry.counter("auth.login.rejected", "reason", "timeout").increment();
+            throw new ServiceBusyException("Sign-in verification timed out, please retry", busyRetryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying sign-in", e);
+        }
+    }
+
+    private TokenBucket newBucket(int attempts) {
+        return new TokenBucket(attempts, attempts, TimeUnit.SECONDS.toNanos(refillPeriodSeconds));
+    }
+
+    private RateLimitExceededException rateLimited(String scope, TokenBucket bucket) {
+        meterRegistry.counter("auth.login.rejected", "reason", "rate_limited_" + scope).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable()) + 1);
+        log.warn("Sign-in rate limit hit ({}), retry after {}s", scope, retryAfter);
+        return new RateLimitExceededException("Too many failed sign-in attempts, please retry later", retryAfter);
+    }
+}
@@ -0,0 +1,62 @@
+package com.navident.clinic.security;
+
+import com.navident.clinic.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Current security version per user id. A token whose "sv" claim is older than this has been revoked.
+// Versions only move forward, so a reload that raced with a local change can never resurrect old tokens.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecurityVersionRegistry {
+
+    public static final long REVOKED = Long.MAX_VALUE;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.jwt.stateless-auth:false}")
+    private boolean statelessAuth;
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    // Null means the user is unknown here (e.g. created on another instance since the last reload)
+    public Long currentVersion(String userId) {
+        return versions.get(userId);
+    }
+
+    public void record(User user) {
+        versions.merge(user.getId(), user.getSecurityVersion(), Math::max);
+    }
+
+    public void revoke(String userId) {
+        versions.put(userId, REVOKED);
+    }
+
+    // Picks up changes made by other instances; runs immediately at startup
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-refresh-ms:10000}")
+    public void reload() {
+        if (!statelessAuth) return;
+        Query query = new Query();
+        query.fields().include("securityVersion");
+        Set<String> seen = new HashSet<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            record(user);
+            seen.add(user.getId());
+        }
+        versions.keySet().stream()
+                .filter(id -> !seen.contains(id))
+                .forEach(this::revoke);
+        log.debug("Security versions reloaded for {} users", seen.size());
+    }
+}
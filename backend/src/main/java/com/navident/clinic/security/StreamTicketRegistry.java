@@ -0,0 +1,52 @@
+package com.navident.clinic.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+// One-time tickets for opening an event stream. EventSource cannot send an Authorization header, so the client
+// trades its JWT for a ticket and puts that in the URL instead; a ticket that leaks into an access log has
+// already been used or expired, and it opens nothing but /api/events/.
+@Component
+public class StreamTicketRegistry {
+
+    private static final int TICKET_BYTES = 24;
+
+    @Value("${app.events.ticket-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final SecureRandom random = new SecureRandom();
+    // ticket -> username
+    private Cache<String, String> tickets;
+
+    @PostConstruct
+    void init() {
+        tickets = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public String issue(String username) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, username);
+        return ticket;
+    }
+
+    // The username the ticket was issued to, or null if it is unknown, expired or already used
+    public String redeem(String ticket) {
+        return tickets.asMap().remove(ticket);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+}
@@ -1,23 +1,56 @@
 package com.navident.clinic.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.navident.clinic.model.User;
 import com.navident.clinic.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.user-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.security.user-cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    // Users resolved for already-authenticated requests; sign-in always goes to the database
+    private Cache<String, UserDetails> requestUserCache;
+
+    @PostConstruct
+    void initCache() {
+        requestUserCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, requestUserCache, "userDetails");
+    }
+
+    public UserDetails loadCachedUserByUsername(String username) {
+        return requestUserCache.get(username, this::loadUserByUsername);
+    }
+
+    public void evictUser(String username) {
+        if (username != null) {
+            requestUserCache.invalidate(username);
+        }
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -29,18 +62,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("User account is inactive: " + username);
         }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user.getRole()))
-                .accountExpired(false)
-                .accountLocked(!user.isActive()) // ✅ LOCK ACCOUNT IF INACTIVE
-                .credentialsExpired(false)
-                .disabled(!user.isActive()) // ✅ DISABLE IF INACTIVE
-                .build();
-    }
-
-    private Collection<? extends GrantedAuthority> getAuthorities(String role) {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+        // Locked and disabled follow the active flag
+        return ClinicUserDetails.from(user);
     }
 }
@@ -0,0 +1,25 @@
+package com.navident.clinic.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// Result of verifying a JWT once: what the request path needs without re-parsing the token
+@Value
+public class VerifiedToken {
+    String subject;
+    Instant expiresAt;
+    // Claims below are absent from tokens issued before they were added
+    String userId;
+    String role;
+    String email;
+    Long securityVersion;
+
+    public boolean hasIdentityClaims() {
+        return userId != null && role != null && securityVersion != null;
+    }
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
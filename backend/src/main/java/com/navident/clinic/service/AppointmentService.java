@@ -1,8 +1,14 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.model.dto.RecurrenceRule;
+import com.navident.clinic.model.dto.RescheduleRequest;
+import com.navident.clinic.model.dto.SeriesUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -12,11 +18,18 @@ public interface AppointmentService {
     List<Appointment> searchAppointments(String query);
     Appointment updateAppointment(String id, Appointment appointment);
     void deleteAppointment(String id);
+    List<Appointment> rescheduleAppointments(List<RescheduleRequest> moves);
+
+    // Recurring series: created in one insert, "this and following" edits in one bulk write
+    List<Appointment> createSeries(Appointment template, RecurrenceRule rule);
+    List<Appointment> getSeries(String seriesId);
+    List<Appointment> updateSeries(String seriesId, int fromIndex, SeriesUpdateRequest changes);
 
     List<Appointment> listAppointmentsByDate(LocalDate date);
-    byte[] exportAppointmentsExcel(LocalDate start, LocalDate end);
+    void exportAppointmentsExcel(LocalDate start, LocalDate end, OutputStream out);
 
     Page<Appointment> getAllAppointments(Pageable pageable);
+    CursorPage<Appointment> scrollAppointments(Sort sort, String cursor, int size, boolean withTotal);
     List<Appointment> getAllAppointments();
     List<Appointment> getTodayAppointments();
     List<Appointment> getAppointmentsByPatientId(String patientId);
@@ -0,0 +1,15 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.dto.FreeSlotDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityService {
+    List<FreeSlotDto> findFreeSlots(String dentistId, LocalDate from, LocalDate to, int durationMinutes);
+    FreeSlotDto findFirstAvailable(String specialization, LocalDate from, int durationMinutes);
+
+    // Drops the cached day of the appointment's dentist after a write, so the next query reloads it
+    void evict(Appointment appointment);
+}
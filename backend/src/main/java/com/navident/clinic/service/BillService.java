@@ -1,8 +1,11 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.Bill;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BillService {
@@ -12,10 +15,11 @@ public interface BillService {
     Bill updateBill(String id, Bill bill);
     void deleteBill(String id);
 
-    byte[] exportBillsExcel(String patientId);
+    void exportBillsExcel(String patientId, OutputStream out);
     byte[] generateBillPdf(String id);
 
     Page<Bill> getAllBills(Pageable pageable);
+    CursorPage<Bill> scrollBills(Sort sort, String cursor, int size, boolean withTotal);
     List<Bill> getAllBills();
     List<Bill> getBillsByPatientId(String patientId);
     List<Bill> getBillsByDentistId(String dentistId);
@@ -0,0 +1,14 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.Appointment;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface ConflictDetectionService {
+    // Replaces the bookings of `removed` with those of `added` (new state) after checking the added ones against every
+    // dentist and chair schedule they touch. `removed` may be stale: the stored state of those appointments is re-read
+    // once the schedules are locked and passed to `write` in the same order, which persists the change under the locks.
+    // Nothing is changed and AppointmentConflictException is thrown if any added booking overlaps.
+    <T> T applyChanges(List<Appointment> removed, List<Appointment> added, Function<List<Appointment>, T> write);
+}
@@ -0,0 +1,12 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.dto.CursorPage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+public interface CursorPaginationService {
+    int MAX_PAGE_SIZE = 100;
+
+    // Keyset page over documents matching filter (may be null), ordered by sort with _id as tie-breaker
+    <T> CursorPage<T> scroll(Class<T> type, Criteria filter, Sort sort, String cursor, int size, boolean withTotal);
+}
@@ -0,0 +1,34 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.Appointment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DaySheetService {
+    DaySheet getDay(LocalDate date);
+    // SCHEDULED and CONFIRMED appointments from today on
+    DaySheet getUpcoming();
+
+    // Write-through after a successful write; before is null for a create, after is null for a delete
+    void apply(Appointment before, Appointment after);
+
+    final class DaySheet {
+        private final List<Appointment> appointments;
+        private final String etag;
+
+        public DaySheet(List<Appointment> appointments, String etag) {
+            this.appointments = appointments;
+            this.etag = etag;
+        }
+
+        public List<Appointment> getAppointments() {
+            return appointments;
+        }
+
+        // Null for days outside the cached window, which are read straight from Mongo
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.ConsultantDentist;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface DentistService {
@@ -12,10 +15,11 @@ public interface DentistService {
     ConsultantDentist updateDentist(String id, ConsultantDentist dentist);
     void deleteDentist(String id);
 
-    byte[] exportDentistsToExcel();
+    void exportDentistsToExcel(OutputStream out);
     byte[] generateDentistPdf(String id);
 
     Page<ConsultantDentist> getAllDentists(Pageable pageable);
+    CursorPage<ConsultantDentist> scrollDentists(Sort sort, String cursor, int size, boolean withTotal);
     List<ConsultantDentist> getAllDentists();
     List<ConsultantDentist> getActiveDentists();
     ConsultantDentist getChiefDentist(); // NEW METHOD
@@ -0,0 +1,19 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.Bill;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface EventStreamService {
+    String CREATED = "CREATED";
+    String UPDATED = "UPDATED";
+    String DELETED = "DELETED";
+
+    // topic is "clinic" for every event or "dentist:<id>" for one dentist's; lastEventId may be null.
+    // Ids are "<boot id>-<sequence>"; an id from another boot or one that no longer fits the replay buffer
+    // gets a "reset" event instead of a replay.
+    SseEmitter subscribe(String topic, String lastEventId);
+
+    void appointmentChanged(String action, Appointment appointment);
+    void billChanged(String action, Bill bill);
+}
@@ -0,0 +1,24 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.dto.ExportJobDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+public interface ExportJobService {
+    ExportJobDto submit(String type, Map<String, ?> params, String fileName, ExportTask task);
+    ExportJobDto getJob(String jobId);
+    Path getArtifact(String jobId);
+    int purgeExpired();
+
+    enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @FunctionalInterface
+    interface ExportTask {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,37 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.model.Insurance;
+import com.navident.clinic.model.Treatment;
+
+import java.util.List;
+
+public interface FacetService {
+    List<String> getValues(Facet facet);
+    void register(Facet facet, String value);
+    void invalidate(Facet facet);
+
+    enum Facet {
+        FINANCE_CATEGORY(ClinicFinance.class, "category"),
+        FINANCE_TYPE(ClinicFinance.class, "type"),
+        FINANCE_VENDOR(ClinicFinance.class, "vendorName"),
+        TREATMENT_CATEGORY(Treatment.class, "category"),
+        INSURANCE_AGENCY(Insurance.class, "agencyName");
+
+        private final Class<?> entityClass;
+        private final String field;
+
+        Facet(Class<?> entityClass, String field) {
+            this.entityClass = entityClass;
+            this.field = field;
+        }
+
+        public Class<?> getEntityClass() {
+            return entityClass;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+}
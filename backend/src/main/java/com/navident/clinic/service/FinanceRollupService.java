@@ -0,0 +1,19 @@
+package com.navident.clinic.service;
+
+import com.navident.clinic.model.ClinicFinance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface FinanceRollupService {
+    void recordAddition(ClinicFinance txn);
+    void recordAdditions(List<ClinicFinance> txns);
+    void recordRemoval(ClinicFinance txn);
+    void recordChange(ClinicFinance before, ClinicFinance after);
+
+    Map<String, BigDecimal> sumByCategory(LocalDate startDate, LocalDate endDate);
+    Map<String, Object> getMonthlyTrend(int year);
+    int rebuild();
+}
@@ -1,8 +1,11 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -11,14 +14,15 @@ import java.util.Map;
 public interface FinanceService {
     ClinicFinance createTransaction(ClinicFinance txn);
     ClinicFinance getTransactionById(String id);
-    List<ClinicFinance> searchTransactions(String query);
+    Page<ClinicFinance> searchTransactions(String query, Pageable pageable);
     ClinicFinance updateTransaction(String id, ClinicFinance txn);
     void deleteTransaction(String id);
 
     List<ClinicFinance> listByCategory(String category);
-    byte[] exportFinanceExcel(LocalDate start, LocalDate end);
+    void exportFinanceExcel(LocalDate start, LocalDate end, OutputStream out);
 
     Page<ClinicFinance> getAllTransactions(Pageable pageable, String category, String type);
+    CursorPage<ClinicFinance> scrollTransactions(String category, String type, Sort sort, String cursor, int size, boolean withTotal);
     List<ClinicFinance> getAllTransactions();
     List<ClinicFinance> getTransactionsByType(String type);
     List<ClinicFinance> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate);
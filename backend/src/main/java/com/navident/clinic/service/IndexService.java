@@ -0,0 +1,10 @@
+package com.navident.clinic.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface IndexService {
+    int ensureIndexes();
+    List<String> findMissingIndexes();
+    List<Map<String, Object>> explainRepositoryQueries();
+}
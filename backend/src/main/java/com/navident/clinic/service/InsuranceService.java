@@ -1,8 +1,11 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.Insurance;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface InsuranceService {
@@ -13,11 +16,13 @@ public interface InsuranceService {
     void deleteInsurance(String id);
 
     List<Insurance> listByPatient(String patientId);
-    byte[] exportInsuranceExcel(String patientId);
+    void exportInsuranceExcel(String patientId, OutputStream out);
 
     Page<Insurance> getAllInsurance(Pageable pageable);
+    CursorPage<Insurance> scrollInsurance(Sort sort, String cursor, int size, boolean withTotal);
     List<Insurance> getAllInsurance();
     List<Insurance> getInsuranceByAgency(String agencyName);
+    List<String> getAllAgencyNames();
     List<Insurance> getActiveInsurance();
     List<Insurance> getExpiringSoonInsurance(int days);
 
@@ -1,8 +1,11 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.Patient;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface PatientService {
@@ -13,9 +16,11 @@ public interface PatientService {
     void deletePatient(String id);
 
     Page<Patient> getAllPatients(Pageable pageable);
+    CursorPage<Patient> scrollPatients(Sort sort, String cursor, int size, boolean withTotal);
     List<Patient> getAllPatients();
     List<Patient> getPatientsByCity(String city);
     List<Patient> getPatientsByMobileNumber(String mobileNumber);
     boolean existsByMobileNumber(String mobileNumber);
     boolean existsByEmail(String email);
+    void exportPatientsExcel(OutputStream out);
 }
@@ -1,8 +1,11 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.Prescription;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -13,16 +16,17 @@ public interface PrescriptionService {
     Prescription updatePrescription(String id, Prescription prescription);
     void deletePrescription(String id);
 
-    byte[] exportPrescriptionsExcel(String patientId);
+    void exportPrescriptionsExcel(String patientId, OutputStream out);
     byte[] generatePrescriptionPdf(String id);
 
     Page<Prescription> getAllPrescriptions(Pageable pageable);
+    CursorPage<Prescription> scrollPrescriptions(Sort sort, String cursor, int size, boolean withTotal);
     List<Prescription> getAllPrescriptions();
     List<Prescription> getPrescriptionsByPatientId(String patientId);
     List<Prescription> getPrescriptionsByDentistId(String dentistId);
     List<Prescription> getPrescriptionsByDateRange(LocalDate startDate, LocalDate endDate);
     List<Prescription> getActivePrescriptions();
     List<Prescription> getPrescriptionsRequiringFollowUp();
-    byte[] exportAllPrescriptionsExcel(LocalDate startDate, LocalDate endDate);
+    void exportAllPrescriptionsExcel(LocalDate startDate, LocalDate endDate, OutputStream out);
     Prescription updatePrescriptionStatus(String id, String status);
 }
@@ -0,0 +1,9 @@
+package com.navident.clinic.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface QueryStatsService {
+    List<Map<String, Object>> getRepositoryMethodStats();
+    List<Map<String, Object>> getSlowCommands();
+}
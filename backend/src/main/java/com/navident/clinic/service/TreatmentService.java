@@ -1,8 +1,10 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.Treatment;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import java.util.List;
 
 public interface TreatmentService {
@@ -15,7 +17,9 @@ public interface TreatmentService {
     List<Treatment> listActiveTreatments();
 
     Page<Treatment> getAllTreatments(Pageable pageable);
+    CursorPage<Treatment> scrollTreatments(Sort sort, String cursor, int size, boolean withTotal);
     List<Treatment> getAllTreatments();
     List<Treatment> getTreatmentsByCategory(String category);
+    List<String> getAllCategories();
     boolean existsByTreatmentName(String treatmentName);
 }
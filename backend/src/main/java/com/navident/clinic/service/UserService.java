@@ -1,8 +1,10 @@
 package com.navident.clinic.service;
 
 import com.navident.clinic.model.User;
+import com.navident.clinic.model.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +14,12 @@ public interface UserService {
     Optional<User> getUserByUsername(String username);
     List<User> getAllUsers();
     Page<User> getAllUsers(Pageable pageable); // ✅ ADDED PAGINATION
+    CursorPage<User> scrollUsers(Sort sort, String cursor, int size, boolean withTotal);
     List<User> searchUsers(String query); // ✅ ADDED SEARCH
     User updateUser(String id, User user);
     void deleteUser(String id);
+    User toggleActive(String id);
+    void changePassword(String id, String encodedPassword);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 }
@@ -1,20 +1,41 @@
 package com.navident.clinic.service.impl;
 
+import com.navident.clinic.exception.InvalidDataException;
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.model.dto.RecurrenceRule;
+import com.navident.clinic.model.dto.RescheduleRequest;
+import com.navident.clinic.model.dto.SeriesUpdateRequest;
 import com.navident.clinic.repository.AppointmentRepository;
 import com.navident.clinic.service.AppointmentService;
+import com.navident.clinic.service.AvailabilityService;
+import com.navident.clinic.service.ConflictDetectionService;
+import com.navident.clinic.service.CursorPaginationService;
+import com.navident.clinic.service.DaySheetService;
+import com.navident.clinic.service.EventStreamService;
+import com.navident.clinic.util.AppointmentTimes;
 import com.navident.clinic.util.ExcelUtil;
+import com.navident.clinic.util.RecurrenceExpander;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.List;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,12 +43,30 @@ import java.util.List;
 public class AppointmentServiceImpl implements AppointmentService {
 
     private final AppointmentRepository repo;
+    private final CursorPaginationService cursorPagination;
+    private final AvailabilityService availability;
+    private final ConflictDetectionService conflicts;
+    private final DaySheetService daySheets;
+    private final EventStreamService events;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.availability.default-duration-minutes:30}")
+    private int defaultDurationMinutes;
+
+    @Value("${app.appointments.series.max-occurrences:200}")
+    private int maxSeriesOccurrences;
 
     @Override
     public Appointment createAppointment(Appointment appointment) {
         appointment.setCreatedAt(LocalDateTime.now());
         appointment.setUpdatedAt(LocalDateTime.now());
-        return repo.save(appointment);
+        if (appointment.getDurationMinutes() == null) {
+            appointment.setDurationMinutes(defaultDurationMinutes);
+        }
+        normalizeSchedule(appointment);
+        Appointment saved = conflicts.applyChanges(List.of(), List.of(appointment), stored -> repo.save(appointment));
+        afterWrite(null, saved);
+        return saved;
     }
 
     @Override
@@ -44,27 +83,210 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public Appointment updateAppointment(String id, Appointment appointment) {
         Appointment existing = getAppointmentById(id);
+        Appointment before = slotOf(existing);
         existing.setAppointmentDate(appointment.getAppointmentDate());
         existing.setAppointmentTime(appointment.getAppointmentTime());
+        existing.setStartAt(appointment.getStartAt());
+        if (appointment.getDurationMinutes() != null) {
+            existing.setDurationMinutes(appointment.getDurationMinutes());
+        }
+        if (appointment.getChairId() != null) {
+            existing.setChairId(appointment.getChairId());
+        }
         existing.setStatus(appointment.getStatus());
         existing.setNotes(appointment.getNotes());
         existing.setUpdatedAt(LocalDateTime.now());
-        return repo.save(existing);
+        normalizeSchedule(existing);
+        // The stored state re-read under the conflict locks, since another update may have moved it after `before` was read
+        List<Appointment> stored = new ArrayList<>(1);
+        Appointment saved = conflicts.applyChanges(List.of(before), List.of(existing), current -> {
+            stored.addAll(current);
+            return repo.save(existing);
+        });
+        afterWrite(stored.get(0), saved);
+        return saved;
+    }
+
+    @Override
+    public List<Appointment> rescheduleAppointments(List<RescheduleRequest> moves) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (RescheduleRequest move : moves) {
+            if (!ids.add(move.getAppointmentId())) {
+                throw new InvalidDataException("Appointment " + move.getAppointmentId() + " is moved more than once");
+            }
+        }
+        Map<String, Appointment> byId = new HashMap<>();
+        repo.findAllById(ids).forEach(a -> byId.put(a.getId(), a));
+        List<Appointment> before = new ArrayList<>();
+        List<Appointment> after = new ArrayList<>();
+        for (RescheduleRequest move : moves) {
+            Appointment appointment = byId.get(move.getAppointmentId());
+            if (appointment == null) {
+                throw new ResourceNotFoundException("Appointment", "id", move.getAppointmentId());
+            }
+            before.add(slotOf(appointment));
+            appointment.setStartAt(move.getStartAt());
+            if (move.getDurationMinutes() != null) {
+                appointment.setDurationMinutes(move.getDurationMinutes());
+            }
+            if (move.getChairId() != null) {
+                appointment.setChairId(move.getChairId());
+            }
+            appointment.setUpdatedAt(LocalDateTime.now());
+            normalizeSchedule(appointment);
+            after.add(appointment);
+        }
+        // Checked as one batch, so appointments may swap times with each other; one conflict rejects the whole batch.
+        // Written as one bulk request that only sets the schedule fields of each appointment.
+        List<Appointment> stored = new ArrayList<>(before.size());
+        List<Appointment> saved = conflicts.applyChanges(before, after, current -> {
+            stored.addAll(current);
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class);
+            for (Appointment appointment : after) {
+                ops.updateOne(Query.query(Criteria.where("_id").is(appointment.getId())), new Update()
+                        .set("appointmentDate", appointment.getAppointmentDate())
+                        .set("appointmentTime", appointment.getAppointmentTime())
+                        .set("startAt", appointment.getStartAt())
+                        .set("durationMinutes", appointment.getDurationMinutes())
+                        .set("chairId", appointment.getChairId())
+                        .set("updatedAt", appointment.getUpdatedAt()));
+            }
+            ops.execute();
+            return after;
+        });
+        for (int i = 0; i < saved.size(); i++) {
+            afterWrite(stored.get(i), saved.get(i));
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Appointment> createSeries(Appointment template, RecurrenceRule rule) {
+        if (template.getDurationMinutes() == null) {
+            template.setDurationMinutes(defaultDurationMinutes);
+        }
+        normalizeSchedule(template);
+        if (template.getStartAt() == null) {
+            throw new InvalidDataException("The first occurrence needs startAt, or appointmentDate and appointmentTime");
+        }
+        List<LocalDateTime> starts = RecurrenceExpander.expand(template.getStartAt(), rule, maxSeriesOccurrences);
+        if (starts.isEmpty()) {
+            throw new InvalidDataException("The recurrence produces no occurrences");
+        }
+        String seriesId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<Appointment> occurrences = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            Appointment occurrence = Appointment.builder()
+                    .patientId(template.getPatientId())
+                    .patientName(template.getPatientName())
+                    .dentistId(template.getDentistId())
+                    .dentistName(template.getDentistName())
+                    .startAt(starts.get(i))
+                    .durationMinutes(template.getDurationMinutes())
+                    .chairId(template.getChairId())
+                    .status(template.getStatus())
+                    .notes(template.getNotes())
+                    .seriesId(seriesId)
+                    .seriesIndex(i)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            normalizeSchedule(occurrence);
+            occurrences.add(occurrence);
+        }
+        // Every occurrence is checked against existing bookings and the rest of the series, then one insertMany
+        List<Appointment> saved = conflicts.applyChanges(List.of(), occurrences, stored -> repo.insert(occurrences));
+        saved.forEach(occurrence -> afterWrite(null, occurrence));
+        log.info("Created appointment series {} with {} occurrences", seriesId, saved.size());
+        return saved;
+    }
+
+    @Override
+    public List<Appointment> getSeries(String seriesId) {
+        List<Appointment> series = repo.findBySeriesIdOrderBySeriesIndexAsc(seriesId);
+        if (series.isEmpty()) {
+            throw new ResourceNotFoundException("Appointment series", "id", seriesId);
+        }
+        return series;
+    }
+
+    @Override
+    public List<Appointment> updateSeries(String seriesId, int fromIndex, SeriesUpdateRequest changes) {
+        List<Appointment> following = repo.findBySeriesIdAndSeriesIndexGreaterThanEqualOrderBySeriesIndexAsc(seriesId, fromIndex);
+        if (following.isEmpty()) {
+            throw new ResourceNotFoundException("Appointment series", "id", seriesId);
+        }
+        LocalTime time = null;
+        if (changes.getAppointmentTime() != null) {
+            time = AppointmentTimes.parseTime(changes.getAppointmentTime());
+            if (time == null) {
+                throw new InvalidDataException("Appointment time must be HH:mm, got '" + changes.getAppointmentTime() + "'");
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Appointment> before = new ArrayList<>();
+        List<Appointment> after = new ArrayList<>();
+        for (Appointment occurrence : following) {
+            // Visits that already took place are history and keep their values
+            if ("COMPLETED".equalsIgnoreCase(occurrence.getStatus())) continue;
+            before.add(slotOf(occurrence));
+            if (time != null) {
+                occurrence.setStartAt(occurrence.getAppointmentDate().atTime(time));
+            }
+            if (changes.getDurationMinutes() != null) {
+                occurrence.setDurationMinutes(changes.getDurationMinutes());
+            }
+            if (changes.getChairId() != null) {
+                occurrence.setChairId(changes.getChairId());
+            }
+            if (changes.getStatus() != null) {
+                occurrence.setStatus(changes.getStatus());
+            }
+            if (changes.getNotes() != null) {
+                occurrence.setNotes(changes.getNotes());
+            }
+            occurrence.setUpdatedAt(now);
+            normalizeSchedule(occurrence);
+            after.add(occurrence);
+        }
+        if (after.isEmpty()) {
+            return after;
+        }
+        boolean retimed = time != null;
+        List<Appointment> stored = new ArrayList<>(before.size());
+        List<Appointment> saved = conflicts.applyChanges(before, after, current -> {
+            stored.addAll(current);
+            bulkUpdate(after, changes, retimed, now);
+            return after;
+        });
+        for (int i = 0; i < saved.size(); i++) {
+            afterWrite(stored.get(i), saved.get(i));
+        }
+        log.info("Updated {} occurrences of appointment series {} from index {}", saved.size(), seriesId, fromIndex);
+        return saved;
     }
 
     @Override
     public void deleteAppointment(String id) {
-        repo.delete(getAppointmentById(id));
+        Appointment existing = getAppointmentById(id);
+        List<Appointment> stored = conflicts.applyChanges(List.of(existing), List.of(), current -> {
+            repo.delete(existing);
+            return current;
+        });
+        afterWrite(stored.get(0), null);
     }
 
     @Override
     public List<Appointment> listAppointmentsByDate(LocalDate date) {
-        return repo.findByAppointmentDateBetween(date, date);
+        return daySheets.getDay(date).getAppointments();
     }
 
     @Override
-    public byte[] exportAppointmentsExcel(LocalDate start, LocalDate end) {
-        return ExcelUtil.appointmentsToExcel(repo.findByAppointmentDateBetween(start, end));
+    public void exportAppointmentsExcel(LocalDate start, LocalDate end, OutputStream out) {
+        try (Stream<Appointment> rows = repo.streamByAppointmentDateBetween(start, end)) {
+            ExcelUtil.appointmentsToExcel(rows, out);
+        }
     }
 
     @Override
@@ -72,6 +294,11 @@ public class AppointmentServiceImpl implements AppointmentService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<Appointment> scrollAppointments(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(Appointment.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<Appointment> getAllAppointments() {
         return repo.findAll();
@@ -79,8 +306,7 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     @Override
     public List<Appointment> getTodayAppointments() {
-        LocalDate today = LocalDate.now();
-        return repo.findByAppointmentDateBetween(today, today);
+        return daySheets.getDay(LocalDate.now()).getAppointments();
     }
 
     @Override
@@ -100,13 +326,82 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     @Override
     public List<Appointment> getUpcomingAppointments() {
-        return repo.findByAppointmentDateGreaterThanEqualAndStatusIn(
-            LocalDate.now(), Arrays.asList("SCHEDULED","CONFIRMED")
-        );
+        return daySheets.getUpcoming().getAppointments();
     }
 
     @Override
     public List<Appointment> getCompletedAppointments() {
         return repo.findByStatus("COMPLETED");
     }
+
+    // One round trip: the shared fields go in a single updateMulti, a new time of day adds one updateOne per
+    // occurrence because startAt differs by date
+    private void bulkUpdate(List<Appointment> occurrences, SeriesUpdateRequest changes, boolean retimed, LocalDateTime now) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class);
+        Update shared = new Update().set("updatedAt", now);
+        if (changes.getDurationMinutes() != null) shared.set("durationMinutes", changes.getDurationMinutes());
+        if (changes.getChairId() != null) shared.set("chairId", changes.getChairId());
+        if (changes.getStatus() != null) shared.set("status", changes.getStatus());
+        if (changes.getNotes() != null) shared.set("notes", changes.getNotes());
+        List<String> ids = occurrences.stream().map(Appointment::getId).toList();
+        ops.updateMulti(Query.query(Criteria.where("_id").in(ids)), shared);
+        if (retimed) {
+            for (Appointment occurrence : occurrences) {
+                ops.updateOne(Query.query(Criteria.where("_id").is(occurrence.getId())), new Update()
+                        .set("startAt", occurrence.getStartAt())
+                        .set("appointmentTime", occurrence.getAppointmentTime()));
+            }
+        }
+        ops.execute();
+    }
+
+    // Caches and event subscribers only hear about a write once it is in Mongo
+    private void afterWrite(Appointment before, Appointment after) {
+        if (before != null) {
+            availability.evict(before);
+        }
+        if (after != null) {
+            availability.evict(after);
+        }
+        daySheets.apply(before, after);
+        String action = before == null ? EventStreamService.CREATED
+                : after == null ? EventStreamService.DELETED : EventStreamService.UPDATED;
+        events.appointmentChanged(action, after != null ? after : before);
+    }
+
+    // startAt wins when given; otherwise it is derived from appointmentDate and appointmentTime
+    private static void normalizeSchedule(Appointment appointment) {
+        Integer duration = appointment.getDurationMinutes();
+        if (duration != null && (duration <= 0 || duration > 24 * 60)) {
+            throw new InvalidDataException("durationMinutes must be between 1 and 1440");
+        }
+        if (appointment.getStartAt() != null) {
+            appointment.setAppointmentDate(appointment.getStartAt().toLocalDate());
+            appointment.setAppointmentTime(AppointmentTimes.format(appointment.getStartAt().toLocalTime()));
+            return;
+        }
+        if (appointment.getAppointmentTime() == null) return;
+        LocalTime time = AppointmentTimes.parseTime(appointment.getAppointmentTime());
+        if (time == null) {
+            throw new InvalidDataException("Appointment time must be HH:mm, got '" + appointment.getAppointmentTime() + "'");
+        }
+        if (appointment.getAppointmentDate() != null) {
+            appointment.setStartAt(appointment.getAppointmentDate().atTime(time));
+        }
+    }
+
+    // The fields that decide which slots an appointment occupies, before it is changed in place
+    private static Appointment slotOf(Appointment appointment) {
+        return Appointment.builder()
+                .id(appointment.getId())
+                .dentistId(appointment.getDentistId())
+                .dentistName(appointment.getDentistName())
+                .appointmentDate(appointment.getAppointmentDate())
+                .appointmentTime(appointment.getAppointmentTime())
+                .startAt(appointment.getStartAt())
+                .durationMinutes(appointment.getDurationMinutes())
+                .chairId(appointment.getChairId())
+                .status(appointment.getStatus())
+                .build();
+    }
 }
@@ -0,0 +1,230 @@
+package com.navident.clinic.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.exception.ResourceNotFoundException;
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.ConsultantDentist;
+import com.navident.clinic.model.dto.FreeSlotDto;
+import com.navident.clinic.repository.AppointmentRepository;
+import com.navident.clinic.repository.DentistRepository;
+import com.navident.clinic.service.AvailabilityService;
+import com.navident.clinic.util.AppointmentTimes;
+import com.navident.clinic.util.SlotBitmap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Read cache for slot searches: one SlotBitmap per dentist-day, loaded from Mongo on first use and evicted
+// after every appointment write. Double-booking is prevented by ConflictDetectionService, not here.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AppointmentRepository appointmentRepo;
+    private final DentistRepository dentistRepo;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.availability.default-duration-minutes:30}")
+    private int defaultDurationMinutes;
+
+    @Value("${app.availability.day-start:09:00}")
+    private String dayStart;
+
+    @Value("${app.availability.day-end:18:00}")
+    private String dayEnd;
+
+    @Value("${app.availability.search-days:30}")
+    private int searchDays;
+
+    @Value("${app.availability.cache.max-days:20000}")
+    private long maxCachedDays;
+
+    @Value("${app.availability.cache.ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    private int openSlot;
+    private int closeSlot;
+    // "dentistId|yyyy-MM-dd" -> occupancy; an entry is never mutated after it is published
+    private Cache<String, SlotBitmap> days;
+    // Bumped by evict before the entry is invalidated; a load only publishes days whose generation it started with
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @PostConstruct
+    void init() {
+        openSlot = SlotBitmap.slotOf(LocalTime.parse(dayStart));
+        closeSlot = SlotBitmap.slotOf(LocalTime.parse(dayEnd));
+        days = Caffeine.newBuilder()
+                .maximumSize(maxCachedDays)
+                // Bounds staleness from writes made by other instances or directly in the database
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "availabilityDays");
+    }
+
+    @Override
+    public List<FreeSlotDto> findFreeSlots(String dentistId, LocalDate from, LocalDate to, int durationMinutes) {
+        if (to.isBefore(from) || from.plusDays(searchDays).isBefore(to)) {
+            throw new InvalidDataException("Date range must be ascending and at most " + searchDays + " days");
+        }
+        ConsultantDentist dentist = dentistRepo.findById(dentistId)
+                .orElseThrow(() -> new ResourceNotFoundException("Dentist", "id", dentistId));
+        int slots = slotsFor(durationMinutes);
+        Map<LocalDate, SlotBitmap> bitmaps = bitmaps(dentistId, from, to);
+        List<FreeSlotDto> free = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (int[] run : bitmaps.get(date).freeRuns(firstBookableSlot(date), closeSlot, slots)) {
+                free.add(slot(dentist, date, run[0], run[1]));
+            }
+        }
+        return free;
+    }
+
+    @Override
+    public FreeSlotDto findFirstAvailable(String specialization, LocalDate from, int durationMinutes) {
+        List<ConsultantDentist> dentists = dentistRepo.findBySpecializationsContaining(specialization).stream()
+                .filter(ConsultantDentist::isActive)
+                .toList();
+        int slots = slotsFor(durationMinutes);
+        LocalDate to = from.plusDays(searchDays - 1);
+        Map<String, Map<LocalDate, SlotBitmap>> byDentist = new HashMap<>();
+        for (ConsultantDentist dentist : dentists) {
+            byDentist.put(dentist.getId(), bitmaps(dentist.getId(), from, to));
+        }
+        // Day by day, earliest start across all dentists wins
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int firstSlot = firstBookableSlot(date);
+            FreeSlotDto best = null;
+            int bestStart = Integer.MAX_VALUE;
+            for (ConsultantDentist dentist : dentists) {
+                int start = byDentist.get(dentist.getId()).get(date).firstFree(firstSlot, closeSlot, slots);
+                if (start >= 0 && start < bestStart) {
+                    bestStart = start;
+                    best = slot(dentist, date, start, start + slots);
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        throw new ResourceNotFoundException("Free slot", "specialization", specialization);
+    }
+
+    @Override
+    public void evict(Appointment appointment) {
+        if (appointment.getDentistId() != null && appointment.getAppointmentDate() != null) {
+            String key = key(appointment.getDentistId(), appointment.getAppointmentDate());
+            generations.incrementAndGet(stripe(key));
+            days.invalidate(key);
+        }
+    }
+
+    private Map<LocalDate, SlotBitmap> bitmaps(String dentistId, LocalDate from, LocalDate to) {
+        Map<LocalDate, SlotBitmap> result = new HashMap<>();
+        boolean complete = true;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            SlotBitmap cached = days.getIfPresent(key(dentistId, date));
+            if (cached == null) {
+                complete = false;
+                break;
+            }
+            result.put(date, cached);
+        }
+        if (complete) {
+            return result;
+        }
+        // One range query fills every missing day
+        Map<LocalDate, SlotBitmap> loaded = new HashMap<>();
+        Map<LocalDate, Long> startedAt = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            loaded.put(date, new SlotBitmap());
+            startedAt.put(date, generations.get(stripe(key(dentistId, date))));
+        }
+        for (Appointment appointment : appointmentRepo.findByDentistIdAndDateRange(dentistId, from, to)) {
+            Booking booking = booking(appointment);
+            if (booking != null) {
+                loaded.get(appointment.getAppointmentDate()).occupy(booking.start, booking.count);
+            }
+        }
+        loaded.forEach((date, bitmap) -> {
+            result.put(date, bitmap);
+            // Checked inside compute, which evict's invalidate waits for, so a day written during the query
+            // is never published from the read that missed the write
+            days.asMap().compute(key(dentistId, date), (key, existing) -> {
+                if (generations.get(stripe(key)) != startedAt.get(date)) {
+                    return existing;
+                }
+                return existing != null ? existing : bitmap;
+            });
+        });
+        return result;
+    }
+
+    // Slots an appointment blocks, or null when it blocks none (cancelled or not fully scheduled)
+    private Booking booking(Appointment appointment) {
+        if (appointment.getDentistId() == null || !AppointmentTimes.occupies(appointment)) {
+            return null;
+        }
+        int start = AppointmentTimes.startMinute(appointment);
+        int duration = AppointmentTimes.durationMinutes(appointment, defaultDurationMinutes);
+        int first = SlotBitmap.slotOf(LocalTime.of(start / 60, start % 60));
+        return new Booking(first, SlotBitmap.slotCount(start % SlotBitmap.SLOT_MINUTES + duration));
+    }
+
+    private int slotsFor(int durationMinutes) {
+        if (durationMinutes <= 0 || durationMinutes > 24 * 60) {
+            throw new InvalidDataException("durationMinutes must be between 1 and 1440");
+        }
+        return SlotBitmap.slotCount(durationMinutes);
+    }
+
+    private int firstBookableSlot(LocalDate date) {
+        if (!date.equals(LocalDate.now())) {
+            return openSlot;
+        }
+        return Math.max(openSlot, SlotBitmap.slotOf(LocalTime.now()) + 1);
+    }
+
+    private FreeSlotDto slot(ConsultantDentist dentist, LocalDate date, int start, int end) {
+        return FreeSlotDto.builder()
+                .dentistId(dentist.getId())
+                .dentistName(dentist.getFirstName() + " " + dentist.getLastName())
+                .date(date)
+                .startTime(SlotBitmap.label(start))
+                .endTime(SlotBitmap.label(end))
+                .build();
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static String key(String dentistId, LocalDate date) {
+        return dentistId + "|" + date;
+    }
+
+    private static class Booking {
+        final int start;
+        final int count;
+
+        Booking(int start, int count) {
+            this.start = start;
+            this.count = count;
+        }
+    }
+}
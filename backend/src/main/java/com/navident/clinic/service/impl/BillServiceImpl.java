@@ -2,19 +2,25 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.Bill;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.BillRepository;
 import com.navident.clinic.service.BillService;
+import com.navident.clinic.service.CursorPaginationService;
+import com.navident.clinic.service.EventStreamService;
 import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,12 +28,16 @@ import java.util.List;
 public class BillServiceImpl implements BillService {
 
     private final BillRepository repo;
+    private final CursorPaginationService cursorPagination;
+    private final EventStreamService events;
 
     @Override
     public Bill createBill(Bill bill) {
         bill.setCreatedAt(LocalDateTime.now());
         bill.setUpdatedAt(LocalDateTime.now());
-        return repo.save(bill);
+        Bill saved = repo.save(bill);
+        events.billChanged(EventStreamService.CREATED, saved);
+        return saved;
     }
 
     @Override
@@ -48,17 +58,23 @@ public class BillServiceImpl implements BillService {
         existing.setAmountPaid(bill.getAmountPaid());
         existing.setAmountDue(bill.getAmountDue());
         existing.setUpdatedAt(LocalDateTime.now());
-        return repo.save(existing);
+        Bill saved = repo.save(existing);
+        events.billChanged(EventStreamService.UPDATED, saved);
+        return saved;
     }
 
     @Override
     public void deleteBill(String id) {
-        repo.delete(getBillById(id));
+        Bill existing = getBillById(id);
+        repo.delete(existing);
+        events.billChanged(EventStreamService.DELETED, existing);
     }
 
     @Override
-    public byte[] exportBillsExcel(String patientId) {
-        return ExcelUtil.billsToExcel(repo.findByPatientId(patientId));
+    public void exportBillsExcel(String patientId, OutputStream out) {
+        try (Stream<Bill> rows = repo.streamByPatientId(patientId)) {
+            ExcelUtil.billsToExcel(rows, out);
+        }
     }
 
     @Override
@@ -71,6 +87,11 @@ public class BillServiceImpl implements BillService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<Bill> scrollBills(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(Bill.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<Bill> getAllBills() {
         return repo.findAll();
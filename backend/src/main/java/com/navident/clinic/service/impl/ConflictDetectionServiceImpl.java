@@ -0,0 +1,276 @@
+package com.navident.clinic.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navident.clinic.exception.AppointmentConflictException;
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.repository.AppointmentRepository;
+import com.navident.clinic.service.ConflictDetectionService;
+import com.navident.clinic.util.AppointmentTimes;
+import com.navident.clinic.util.IntervalSchedule;
+import com.navident.clinic.util.IntervalSchedule.Interval;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Interval index per dentist-day and per chair-day. A change locks the schedules it touches (striped locks,
+// taken in a fixed order) for the check and the Mongo write, so two requests cannot both pass the check.
+// The replaced appointments are re-read under those locks, so a booking moved meanwhile is removed where it really is.
+// Schedules are loaded from Mongo under the same lock, so an evicted one is rebuilt from committed data.
+// Missing days are loaded with one date-range query per dentist and per chair, so a long series costs two reads.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConflictDetectionServiceImpl implements ConflictDetectionService {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final AppointmentRepository repo;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.availability.default-duration-minutes:30}")
+    private int defaultDurationMinutes;
+
+    @Value("${app.availability.cache.max-days:20000}")
+    private long maxCachedDays;
+
+    @Value("${app.availability.cache.ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // "dentist:<id>|<date>" or "chair:<id>|<date>" -> bookings of that day
+    private Cache<String, IntervalSchedule> schedules;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        schedules = Caffeine.newBuilder()
+                .maximumSize(maxCachedDays)
+                // Bounds staleness from writes made by other instances or directly in the database
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, "appointmentSchedules");
+    }
+
+    @Override
+    public <T> T applyChanges(List<Appointment> removed, List<Appointment> added, Function<List<Appointment>, T> write) {
+        List<Booking> additions = bookings(added);
+        SortedSet<Integer> stripes = new TreeSet<>();
+        bookings(removed).forEach(b -> stripes.add(stripe(b.key)));
+        additions.forEach(b -> stripes.add(stripe(b.key)));
+
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            List<Appointment> stored;
+            while (true) {
+                for (int stripe : stripes) {
+                    locks[stripe].lock();
+                    held.add(locks[stripe]);
+                }
+                // Any change to these appointments holds the locks of the days they are stored on, so once those
+                // are among ours the re-read state cannot move; otherwise start over with their locks added
+                stored = reread(removed);
+                Set<Integer> needed = new TreeSet<>();
+                bookings(stored).forEach(b -> needed.add(stripe(b.key)));
+                if (stripes.containsAll(needed)) {
+                    break;
+                }
+                unlock(held);
+                stripes.addAll(needed);
+            }
+            List<Booking> removals = bookings(stored);
+            preload(removals, additions);
+            List<Runnable> undo = new ArrayList<>();
+            List<Map.Entry<Booking, Interval>> inserted = new ArrayList<>();
+            try {
+                for (Booking booking : removals) {
+                    IntervalSchedule schedule = schedule(booking.key);
+                    Interval interval = schedule.find(booking.appointment.getId(), booking.start);
+                    if (interval != null) {
+                        schedule.remove(interval);
+                        undo.add(() -> schedule.add(interval.getAppointmentId(), interval.getStart(), interval.getEnd()));
+                    }
+                }
+                // Added one by one so that a batch is also checked against itself
+                List<String> conflicts = new ArrayList<>();
+                for (Booking booking : additions) {
+                    IntervalSchedule schedule = schedule(booking.key);
+                    List<Interval> overlaps = schedule.overlapping(booking.start, booking.end);
+                    if (!overlaps.isEmpty()) {
+                        conflicts.add(describe(booking, overlaps));
+                        continue;
+                    }
+                    Interval interval = schedule.add(booking.appointment.getId(), booking.start, booking.end);
+                    inserted.add(Map.entry(booking, interval));
+                    undo.add(() -> schedule.remove(interval));
+                }
+                if (!conflicts.isEmpty()) {
+                    throw new AppointmentConflictException(String.join("; ", conflicts));
+                }
+            } catch (RuntimeException e) {
+                // Nothing was written yet, so the schedules go back to exactly what they were
+                for (int i = undo.size() - 1; i >= 0; i--) {
+                    undo.get(i).run();
+                }
+                throw e;
+            }
+            T result;
+            try {
+                result = write.apply(stored);
+            } catch (RuntimeException e) {
+                // Part of a batch may already be stored; rebuild the touched days from Mongo instead of guessing
+                removals.forEach(b -> schedules.invalidate(b.key));
+                additions.forEach(b -> schedules.invalidate(b.key));
+                throw e;
+            }
+            inserted.forEach(e -> e.getValue().setAppointmentId(e.getKey().appointment.getId()));
+            return result;
+        } finally {
+            unlock(held);
+        }
+    }
+
+    // Stored state of each removed appointment, in the given order; one deleted meanwhile keeps the state it was given
+    private List<Appointment> reread(List<Appointment> removed) {
+        List<String> ids = removed.stream().map(Appointment::getId).filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return removed;
+        }
+        Map<String, Appointment> byId = new HashMap<>();
+        repo.findAllById(ids).forEach(a -> byId.put(a.getId(), a));
+        return removed.stream().map(a -> a.getId() == null ? a : byId.getOrDefault(a.getId(), a)).toList();
+    }
+
+    private static void unlock(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+        held.clear();
+    }
+
+    // Seeds every uncached schedule the change needs, including empty days. Called with their locks held;
+    // only those keys are put, since days outside the change may be mid-write under another lock.
+    private void preload(List<Booking> removals, List<Booking> additions) {
+        Map<String, List<Booking>> missingByResource = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (List<Booking> bookings : List.of(removals, additions)) {
+            for (Booking booking : bookings) {
+                if (seen.add(booking.key) && schedules.getIfPresent(booking.key) == null) {
+                    missingByResource.computeIfAbsent(booking.resource(), r -> new ArrayList<>()).add(booking);
+                }
+            }
+        }
+        missingByResource.forEach((resource, missing) -> {
+            LocalDate from = missing.stream().map(b -> b.appointment.getAppointmentDate()).min(Comparator.naturalOrder()).orElseThrow();
+            LocalDate to = missing.stream().map(b -> b.appointment.getAppointmentDate()).max(Comparator.naturalOrder()).orElseThrow();
+            Map<LocalDate, List<Appointment>> byDate = new HashMap<>();
+            for (Appointment appointment : query(resource, from, to)) {
+                byDate.computeIfAbsent(appointment.getAppointmentDate(), d -> new ArrayList<>()).add(appointment);
+            }
+            for (Booking booking : missing) {
+                schedules.put(booking.key, build(byDate.getOrDefault(booking.appointment.getAppointmentDate(), List.of())));
+            }
+        });
+    }
+
+    private IntervalSchedule schedule(String key) {
+        return schedules.get(key, this::load);
+    }
+
+    private IntervalSchedule load(String key) {
+        int bar = key.lastIndexOf('|');
+        LocalDate date = LocalDate.parse(key.substring(bar + 1));
+        return build(query(key.substring(0, bar), date, date));
+    }
+
+    // resource is "dentist:<id>" or "chair:<id>"
+    private List<Appointment> query(String resource, LocalDate from, LocalDate to) {
+        int colon = resource.indexOf(':');
+        String id = resource.substring(colon + 1);
+        return resource.startsWith("chair:")
+                ? repo.findByChairIdAndDateRange(id, from, to)
+                : repo.findByDentistIdAndDateRange(id, from, to);
+    }
+
+    private IntervalSchedule build(List<Appointment> appointments) {
+        IntervalSchedule schedule = new IntervalSchedule();
+        for (Appointment appointment : appointments) {
+            if (AppointmentTimes.occupies(appointment)) {
+                int start = AppointmentTimes.startMinute(appointment);
+                schedule.add(appointment.getId(), start, end(start, appointment));
+            }
+        }
+        return schedule;
+    }
+
+    private List<Booking> bookings(List<Appointment> appointments) {
+        List<Booking> bookings = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            if (!AppointmentTimes.occupies(appointment)) continue;
+            int start = AppointmentTimes.startMinute(appointment);
+            int end = end(start, appointment);
+            LocalDate date = appointment.getAppointmentDate();
+            if (appointment.getDentistId() != null) {
+                bookings.add(new Booking("dentist:" + appointment.getDentistId() + "|" + date, appointment, start, end));
+            }
+            if (appointment.getChairId() != null) {
+                bookings.add(new Booking("chair:" + appointment.getChairId() + "|" + date, appointment, start, end));
+            }
+        }
+        return bookings;
+    }
+
+    private int end(int start, Appointment appointment) {
+        return Math.min(MINUTES_PER_DAY, start + AppointmentTimes.durationMinutes(appointment, defaultDurationMinutes));
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), LOCK_STRIPES);
+    }
+
+    private static String describe(Booking booking, List<Interval> overlaps) {
+        Appointment a = booking.appointment;
+        String resource = booking.key.startsWith("chair:")
+                ? "Chair " + a.getChairId()
+                : (a.getDentistName() != null ? a.getDentistName() : "Dentist " + a.getDentistId());
+        List<String> ids = overlaps.stream().map(Interval::getAppointmentId).filter(Objects::nonNull).toList();
+        return String.format("%s is already booked on %s between %s (%d min) overlapping appointment(s) %s",
+                resource, a.getAppointmentDate(), minuteLabel(booking.start), booking.end - booking.start, ids);
+    }
+
+    private static String minuteLabel(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+
+    private static class Booking {
+        final String key;
+        final Appointment appointment;
+        final int start;
+        final int end;
+
+        Booking(String key, Appointment appointment, int start, int end) {
+            this.key = key;
+            this.appointment = appointment;
+            this.start = start;
+            this.end = end;
+        }
+
+        String resource() {
+            return key.substring(0, key.lastIndexOf('|'));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.model.dto.CursorPage;
+import com.navident.clinic.service.CursorPaginationService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Keyset ("seek") pagination: each page filters past the last sort key + _id instead of skipping,
+// so page 500 costs the same index range scan as page 1 and no count runs unless asked for
+@Service
+@RequiredArgsConstructor
+public class CursorPaginationServiceImpl implements CursorPaginationService {
+
+    private static final JsonWriterSettings CURSOR_JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public <T> CursorPage<T> scroll(Class<T> type, Criteria filter, Sort sort, String cursor, int size, boolean withTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // _id makes the order total, so rows sharing a sort value are neither skipped nor repeated
+        Sort order = sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(directionOf(sort), "id"));
+        String sortKey = order.toString();
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter != null) {
+            criteria.add(filter);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            criteria.add(seekPast(order, decode(cursor, sortKey)));
+        }
+        Query query = criteria.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(criteria));
+        // One extra row tells whether another page exists
+        query.with(order).limit(pageSize + 1);
+        List<T> rows = mongoTemplate.find(query, type);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasNext ? encode(keysOf(content.get(content.size() - 1), order), sortKey) : null;
+        Long total = withTotal ? mongoTemplate.count(filter != null ? Query.query(filter) : new Query(), type) : null;
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor, total);
+    }
+
+    private static Sort.Direction directionOf(Sort sort) {
+        return sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+    }
+
+    // Rows after the cursor in sort order: (k1 after v1) or (k1 = v1 and k2 after v2) or ...
+    // Mongo sorts null and missing values before everything else, which $gt/$lt do not reflect, so a null key
+    // gets its own predicates instead of a comparison that would skip or repeat those rows.
+    private static Criteria seekPast(Sort order, Document keys) {
+        List<Criteria> branches = new ArrayList<>();
+        List<Criteria> equalSoFar = new ArrayList<>();
+        for (Sort.Order o : order) {
+            String field = o.getProperty();
+            Object value = keys.get(field);
+            Criteria after;
+            if (o.isAscending()) {
+                after = value == null ? Criteria.where(field).ne(null) : Criteria.where(field).gt(value);
+            } else {
+                // Nothing sorts after null in descending order
+                after = value == null ? null
+                        : new Criteria().orOperator(Criteria.where(field).lt(value), Criteria.where(field).is(null));
+            }
+            if (after != null) {
+                List<Criteria> branch = new ArrayList<>(equalSoFar);
+                branch.add(after);
+                branches.add(branch.size() == 1 ? branch.get(0) : new Criteria().andOperator(branch));
+            }
+            equalSoFar.add(Criteria.where(field).is(value));
+        }
+        if (branches.isEmpty()) {
+            // Cannot happen with the _id tie-breaker, which is never null
+            throw new InvalidDataException("Invalid cursor");
+        }
+        return new Criteria().orOperator(branches);
+    }
+
+    private Map<String, Object> keysOf(Object row, Sort order) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(row.getClass());
+        PersistentPropertyAccessor<Object> accessor = entity.getPropertyAccessor(row);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order o : order) {
+            keys.put(o.getProperty(), accessor.getProperty(entity.getRequiredPersistentProperty(o.getProperty())));
+        }
+        return keys;
+    }
+
+    // The cursor carries the sort it was issued for; reusing it with a different sort would seek on the wrong key
+    private String encode(Map<String, Object> keys, String sortKey) {
+        Document stored = new Document();
+        // Keys are entity values (LocalDate, BigDecimal...), stored in the form they have in the collection
+        keys.forEach((field, value) -> stored.put(field, value == null ? null : mongoTemplate.getConverter().convertToMongoType(value)));
+        String json = new Document("s", sortKey).append("k", stored).toJson(CURSOR_JSON);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Document decode(String cursor, String sortKey) {
+        Document decoded;
+        try {
+            decoded = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+        if (!sortKey.equals(decoded.getString("s")) || !(decoded.get("k") instanceof Document keys)) {
+            throw new InvalidDataException("Cursor does not match the requested sort");
+        }
+        return keys;
+    }
+}
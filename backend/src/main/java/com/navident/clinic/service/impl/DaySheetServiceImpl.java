@@ -0,0 +1,193 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.repository.AppointmentRepository;
+import com.navident.clinic.service.DaySheetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+// Appointment lists for today and the next days, plus the upcoming list, held in memory and patched by every
+// appointment write. Each sheet keeps the revision of its last change, which is also its ETag.
+// Sheets are reloaded at midnight and when older than max-age, which picks up writes from other instances.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DaySheetServiceImpl implements DaySheetService {
+
+    private static final List<String> UPCOMING_STATUSES = List.of("SCHEDULED", "CONFIRMED");
+    private static final Comparator<Appointment> BY_START = Comparator
+            .comparing(Appointment::getAppointmentDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Appointment::getStartAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Appointment::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final AppointmentRepository repo;
+
+    @Value("${app.day-sheet.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${app.day-sheet.max-age-minutes:10}")
+    private long maxAgeMinutes;
+
+    // Revisions restart with the process, so the boot time keeps old ETags from matching new sheets
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong revision = new AtomicLong();
+    private final Map<LocalDate, Sheet> days = new ConcurrentHashMap<>();
+    // Guards replacing `upcoming`, never a query; readers of a fresh sheet skip it
+    private final Object upcomingLock = new Object();
+    private volatile Sheet upcoming;
+
+    @Override
+    public DaySheet getDay(LocalDate date) {
+        if (!inWindow(date)) {
+            return new DaySheet(loadDay(date), null);
+        }
+        Sheet cached = days.get(date);
+        if (isFresh(cached)) {
+            return cached.view();
+        }
+        // Loaded outside compute, so a slow query does not hold up writers patching the map
+        long started = revision.get();
+        List<Appointment> loaded = loadDay(date);
+        return days.compute(date, (d, current) -> keepNewer(current, started) ? current : reload(current, loaded)).view();
+    }
+
+    @Override
+    public DaySheet getUpcoming() {
+        Sheet cached = upcoming;
+        if (isFresh(cached)) {
+            return cached.view();
+        }
+        // Loaded outside the lock, so a slow query does not hold up writers patching the list
+        long started = revision.get();
+        return publishUpcoming(started, loadUpcoming()).view();
+    }
+
+    @Override
+    public void apply(Appointment before, Appointment after) {
+        String id = after != null ? after.getId() : before.getId();
+        Set<LocalDate> dates = new HashSet<>();
+        if (before != null && before.getAppointmentDate() != null) dates.add(before.getAppointmentDate());
+        if (after != null && after.getAppointmentDate() != null) dates.add(after.getAppointmentDate());
+        for (LocalDate date : dates) {
+            // Only cached days are patched; a day that is not cached is loaded from Mongo, which has the write
+            days.computeIfPresent(date, (d, sheet) -> patch(sheet, id, after, a -> d.equals(a.getAppointmentDate())));
+        }
+        synchronized (upcomingLock) {
+            if (upcoming != null) {
+                upcoming = patch(upcoming, id, after, this::isUpcoming);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.day-sheet.prewarm-cron:0 0 0 * * *}")
+    public void prewarm() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> !inWindow(date));
+        long started = revision.get();
+        Map<LocalDate, List<Appointment>> byDate = new HashMap<>();
+        for (Appointment appointment : repo.findByDateRange(today, today.plusDays(horizonDays - 1))) {
+            byDate.computeIfAbsent(appointment.getAppointmentDate(), d -> new ArrayList<>()).add(appointment);
+        }
+        for (int i = 0; i < horizonDays; i++) {
+            LocalDate date = today.plusDays(i);
+            List<Appointment> loaded = sorted(byDate.getOrDefault(date, List.of()));
+            days.compute(date, (d, current) -> keepNewer(current, started) ? current : reload(current, loaded));
+        }
+        publishUpcoming(started, loadUpcoming());
+        log.info("Pre-warmed day sheets for {} days from {}", horizonDays, today);
+    }
+
+    private Sheet publishUpcoming(long started, List<Appointment> loaded) {
+        synchronized (upcomingLock) {
+            if (!keepNewer(upcoming, started)) {
+                upcoming = reload(upcoming, loaded);
+            }
+            return upcoming;
+        }
+    }
+
+    private Sheet patch(Sheet sheet, String id, Appointment after, Predicate<Appointment> belongs) {
+        List<Appointment> patched = new ArrayList<>(sheet.appointments.size() + 1);
+        for (Appointment appointment : sheet.appointments) {
+            if (!Objects.equals(appointment.getId(), id)) {
+                patched.add(appointment);
+            }
+        }
+        if (after != null && belongs.test(after)) {
+            patched.add(after);
+        }
+        return new Sheet(sorted(patched), revision.incrementAndGet(), sheet.loadedAt);
+    }
+
+    // A sheet patched or reloaded after the query started already includes everything the query saw; keep it
+    private static boolean keepNewer(Sheet current, long started) {
+        return current != null && current.revision > started;
+    }
+
+    // Keeps the revision, and so the ETag, when a reload finds nothing new
+    private Sheet reload(Sheet current, List<Appointment> loaded) {
+        long now = System.nanoTime();
+        if (current != null && current.appointments.equals(loaded)) {
+            return new Sheet(current.appointments, current.revision, now);
+        }
+        return new Sheet(loaded, revision.incrementAndGet(), now);
+    }
+
+    private List<Appointment> loadDay(LocalDate date) {
+        return sorted(repo.findByDateRange(date, date));
+    }
+
+    private List<Appointment> loadUpcoming() {
+        return sorted(repo.findByAppointmentDateGreaterThanEqualAndStatusIn(LocalDate.now(), UPCOMING_STATUSES));
+    }
+
+    private boolean isUpcoming(Appointment appointment) {
+        return appointment.getAppointmentDate() != null
+                && !appointment.getAppointmentDate().isBefore(LocalDate.now())
+                && UPCOMING_STATUSES.contains(appointment.getStatus());
+    }
+
+    private boolean isFresh(Sheet sheet) {
+        return sheet != null && System.nanoTime() - sheet.loadedAt < Duration.ofMinutes(maxAgeMinutes).toNanos();
+    }
+
+    private boolean inWindow(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && date.isBefore(today.plusDays(horizonDays));
+    }
+
+    private static List<Appointment> sorted(List<Appointment> appointments) {
+        List<Appointment> copy = new ArrayList<>(appointments);
+        copy.sort(BY_START);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private class Sheet {
+        final List<Appointment> appointments;
+        final long revision;
+        final long loadedAt;
+
+        Sheet(List<Appointment> appointments, long revision, long loadedAt) {
+            this.appointments = appointments;
+            this.revision = revision;
+            this.loadedAt = loadedAt;
+        }
+
+        DaySheet view() {
+            return new DaySheet(appointments, "\"" + bootId + "-" + revision + "\"");
+        }
+    }
+}
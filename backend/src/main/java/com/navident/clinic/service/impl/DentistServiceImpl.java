@@ -2,18 +2,23 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.ConsultantDentist;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.DentistRepository;
 import com.navident.clinic.service.DentistService;
+import com.navident.clinic.service.CursorPaginationService;
 import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +26,7 @@ import java.util.List;
 public class DentistServiceImpl implements DentistService {
 
     private final DentistRepository repo;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public ConsultantDentist createDentist(ConsultantDentist dentist) {
@@ -88,8 +94,10 @@ public class DentistServiceImpl implements DentistService {
     }
 
     @Override
-    public byte[] exportDentistsToExcel() {
-        return ExcelUtil.dentistsToExcel(repo.findAll());
+    public void exportDentistsToExcel(OutputStream out) {
+        try (Stream<ConsultantDentist> rows = repo.streamAllBy()) {
+            ExcelUtil.dentistsToExcel(rows, out);
+        }
     }
 
     @Override
@@ -102,6 +110,11 @@ public class DentistServiceImpl implements DentistService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<ConsultantDentist> scrollDentists(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(ConsultantDentist.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<ConsultantDentist> getAllDentists() {
         return repo.findAll();
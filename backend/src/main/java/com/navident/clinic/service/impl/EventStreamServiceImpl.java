@@ -0,0 +1,270 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.exception.ServiceBusyException;
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.Bill;
+import com.navident.clinic.model.dto.ChangeEventDto;
+import com.navident.clinic.service.EventStreamService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans appointment and bill changes out to SSE subscribers. Each subscriber has a bounded pending map keyed by
+// entity, so repeated changes to one record collapse into the latest; a subscriber that falls further behind
+// than buffer-size records gets a single "reset" event instead and reloads. Writes to the sockets happen on a
+// small dispatcher pool, never on the thread that made the change.
+@Service
+@Slf4j
+public class EventStreamServiceImpl implements EventStreamService {
+
+    private static final String CLINIC_TOPIC = "clinic";
+    private static final String RESET_EVENT = "reset";
+    private static final int DRAIN_BATCH = 50;
+
+    @Value("${app.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.events.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.events.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${app.events.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    // The sequence restarts with the process, so ids carry the boot time to tell a restart from a gap
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guards the sequence, the replay ring and the fan-out, so every subscriber receives ids in ascending order
+    private final Object publishLock = new Object();
+    private long sequence;
+    private ChangeEventDto[] ring;
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    void init() {
+        ring = new ChangeEventDto[replaySize];
+        AtomicInteger threadNo = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+            Thread t = new Thread(r, "sse-dispatch-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(String topic, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (publishLock) {
+            // Checked and added under the lock, so concurrent subscribes cannot overshoot the cap
+            if (subscribers.size() >= maxSubscribers) {
+                throw new ServiceBusyException("Too many event stream subscribers, please retry later", retryAfterSeconds);
+            }
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void appointmentChanged(String action, Appointment appointment) {
+        publish(ChangeEventDto.builder()
+                .entity("appointment")
+                .action(action)
+                .entityId(appointment.getId())
+                .dentistId(appointment.getDentistId())
+                .date(appointment.getAppointmentDate())
+                .status(appointment.getStatus()));
+    }
+
+    @Override
+    public void billChanged(String action, Bill bill) {
+        publish(ChangeEventDto.builder()
+                .entity("bill")
+                .action(action)
+                .entityId(bill.getId())
+                .dentistId(bill.getDentistId())
+                .date(bill.getBillDate())
+                .status(bill.getPaymentStatus()));
+    }
+
+    // Proxies drop idle connections and a dead client is only noticed on a write
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::requestHeartbeat);
+    }
+
+    private void publish(ChangeEventDto.ChangeEventDtoBuilder builder) {
+        synchronized (publishLock) {
+            ChangeEventDto event = builder.sequence(++sequence).id(eventId(sequence)).timestamp(LocalDateTime.now()).build();
+            ring[(int) (sequence % replaySize)] = event;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.wants(event)) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+    }
+
+    // Called under publishLock
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long last = sequenceOf(lastEventId);
+        long oldest = Math.max(1, sequence - replaySize + 1);
+        // -1 is an id from another boot (or not ours at all); nothing after it can be replayed
+        if (last < 0 || last > sequence || last + 1 < oldest) {
+            subscriber.reset(sequence);
+            return;
+        }
+        for (long id = last + 1; id <= sequence; id++) {
+            ChangeEventDto event = ring[(int) (id % replaySize)];
+            if (subscriber.wants(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private String eventId(long seq) {
+        return bootId + "-" + seq;
+    }
+
+    // The sequence part of an id issued by this boot, or -1
+    private long sequenceOf(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(bootId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private final class Subscriber {
+        final String topic;
+        final SseEmitter emitter;
+        // entity:id -> latest undelivered change, in id order; guarded by this
+        private final LinkedHashMap<String, ChangeEventDto> pending = new LinkedHashMap<>();
+        private long resetAt = -1;
+        private boolean heartbeatDue;
+        private boolean draining;
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        boolean wants(ChangeEventDto event) {
+            return topic.equals(CLINIC_TOPIC) || topic.equals("dentist:" + event.getDentistId());
+        }
+
+        synchronized void offer(ChangeEventDto event) {
+            if (resetAt >= 0) {
+                resetAt = event.getSequence();
+            } else {
+                String key = event.getEntity() + ":" + event.getEntityId();
+                pending.remove(key);
+                pending.put(key, event);
+                if (pending.size() > bufferSize) {
+                    pending.clear();
+                    resetAt = event.getSequence();
+                }
+            }
+            schedule();
+        }
+
+        synchronized void reset(long lastId) {
+            pending.clear();
+            resetAt = lastId;
+            schedule();
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining) {
+                draining = true;
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        // At most DRAIN_BATCH events per run, so one busy subscriber cannot hold a dispatcher thread
+        private void drain() {
+            List<ChangeEventDto> batch = new ArrayList<>();
+            long reset;
+            boolean heartbeat;
+            synchronized (this) {
+                reset = resetAt;
+                resetAt = -1;
+                heartbeat = heartbeatDue;
+                heartbeatDue = false;
+                Iterator<ChangeEventDto> it = pending.values().iterator();
+                while (it.hasNext() && batch.size() < DRAIN_BATCH) {
+                    batch.add(it.next());
+                    it.remove();
+                }
+            }
+            try {
+                if (reset >= 0) {
+                    emitter.send(SseEmitter.event().id(eventId(reset)).name(RESET_EVENT).data("{}"));
+                }
+                for (ChangeEventDto event : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(event.getId())
+                            .name(event.getEntity() + "." + event.getAction().toLowerCase())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (heartbeat) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping event stream subscriber on {}: {}", topic, e.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            }
+            synchronized (this) {
+                if (pending.isEmpty() && resetAt < 0 && !heartbeatDue) {
+                    draining = false;
+                } else {
+                    dispatcher.execute(this::drain);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.exception.ResourceNotFoundException;
+import com.navident.clinic.exception.ServiceBusyException;
+import com.navident.clinic.model.dto.ExportJobDto;
+import com.navident.clinic.service.ExportJobService;
+import com.navident.clinic.util.ExportProgress;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs Excel exports on a bounded worker pool, spooling finished files to disk until their TTL runs out
+@Service
+@Slf4j
+public class ExportJobServiceImpl implements ExportJobService {
+
+    @Value("${app.export.spool-dir:${java.io.tmpdir}/navident-exports}")
+    private Path spoolDir;
+
+    @Value("${app.export.workers:2}")
+    private int workers;
+
+    @Value("${app.export.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.export.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.export.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Dedupe key -> id of the queued or running job producing that file
+    private final Map<String, String> activeByKey = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(spoolDir);
+        // Jobs do not survive a restart, so anything left in the spool dir is orphaned
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+        AtomicInteger threadNo = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "export-worker-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        log.info("Export jobs: {} workers, queue {}, spool dir {}", workers, queueCapacity, spoolDir);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ExportJobDto submit(String type, Map<String, ?> params, String fileName, ExportTask task) {
+        String owner = currentUsername();
+        String key = type + new TreeMap<>(params);
+        String jobId = activeByKey.compute(key, (k, existingId) -> {
+            Job existing = existingId != null ? jobs.get(existingId) : null;
+            if (existing != null && existing.isActive()) {
+                existing.owners.add(owner);
+                return existingId;
+            }
+            Job job = new Job(UUID.randomUUID().toString(), key, type, fileName, owner);
+            jobs.put(job.id, job);
+            try {
+                executor.execute(() -> run(job, task));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                throw new ServiceBusyException("Export queue is full, please retry later", retryAfterSeconds);
+            }
+            return job.id;
+        });
+        log.info("Export job {} ({}) requested by {}", jobId, type, owner);
+        return jobs.get(jobId).toDto(ttlMinutes);
+    }
+
+    @Override
+    public ExportJobDto getJob(String jobId) {
+        return findOwnedJob(jobId).toDto(ttlMinutes);
+    }
+
+    @Override
+    public Path getArtifact(String jobId) {
+        Job job = findOwnedJob(jobId);
+        if (job.status != Status.COMPLETED) {
+            throw new InvalidDataException("Export job " + jobId + " is not ready (status " + job.status + ")");
+        }
+        return artifactPath(job);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.export.purge-interval-ms:300000}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+        int purged = 0;
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(cutoff) && jobs.remove(job.id, job)) {
+                deleteQuietly(artifactPath(job));
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired export jobs", purged);
+        }
+        return purged;
+    }
+
+    private void run(Job job, ExportTask task) {
+        job.status = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        Path part = spoolDir.resolve(job.id + ".part");
+        ExportProgress.bind(job.rows);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                task.write(out);
+            }
+            Path target = artifactPath(job);
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            job.sizeBytes = Files.size(target);
+            job.finishedAt = LocalDateTime.now();
+            job.status = Status.COMPLETED;
+            log.info("Export job {} completed: {} rows in {} ms", job.id, job.rows.get(),
+                    Duration.between(job.startedAt, job.finishedAt).toMillis());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.id, e);
+            deleteQuietly(part);
+            job.error = e.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            job.status = Status.FAILED;
+        } finally {
+            ExportProgress.clear();
+            activeByKey.remove(job.key, job.id);
+        }
+    }
+
+    private Job findOwnedJob(String jobId) {
+        Job job = jobs.get(jobId);
+        // Other users' jobs are reported as missing rather than forbidden
+        if (job == null || !(job.owners.contains(currentUsername()) || isAdministrator())) {
+            throw new ResourceNotFoundException("ExportJob", "id", jobId);
+        }
+        return job;
+    }
+
+    private Path artifactPath(Job job) {
+        return spoolDir.resolve(job.id + ".xlsx");
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    private boolean isAdministrator() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMINISTRATOR".equals(a.getAuthority()));
+    }
+
+    private static class Job {
+        final String id;
+        final String key;
+        final String type;
+        final String fileName;
+        final Set<String> owners = ConcurrentHashMap.newKeySet();
+        final AtomicLong rows = new AtomicLong();
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile Status status = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile long sizeBytes;
+        volatile String error;
+
+        Job(String id, String key, String type, String fileName, String owner) {
+            this.id = id;
+            this.key = key;
+            this.type = type;
+            this.fileName = fileName;
+            this.owners.add(owner);
+        }
+
+        boolean isActive() {
+            return status == Status.QUEUED || status == Status.RUNNING;
+        }
+
+        ExportJobDto toDto(long ttlMinutes) {
+            LocalDateTime finished = finishedAt;
+            return ExportJobDto.builder()
+                    .id(id)
+                    .type(type)
+                    .status(status)
+                    .rowsWritten(rows.get())
+                    .sizeBytes(sizeBytes)
+                    .fileName(fileName)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finished)
+                    .expiresAt(finished != null ? finished.plusMinutes(ttlMinutes) : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.service.FacetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Registry of distinct dropdown values, loaded lazily with an index-backed distinct and kept current by writes
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FacetServiceImpl implements FacetService {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<Facet, NavigableSet<String>> facets = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getValues(Facet facet) {
+        return List.copyOf(facets.computeIfAbsent(facet, this::load));
+    }
+
+    @Override
+    public void register(Facet facet, String value) {
+        if (value == null) return;
+        // computeIfPresent waits for an in-flight load, so the new value cannot be lost to a stale distinct
+        facets.computeIfPresent(facet, (key, values) -> {
+            values.add(value);
+            return values;
+        });
+    }
+
+    @Override
+    public void invalidate(Facet facet) {
+        facets.remove(facet);
+    }
+
+    private NavigableSet<String> load(Facet facet) {
+        NavigableSet<String> values = new ConcurrentSkipListSet<>();
+        mongoTemplate.findDistinct(new Query(), facet.getField(), facet.getEntityClass(), String.class)
+                .stream().filter(Objects::nonNull).forEach(values::add);
+        log.debug("Loaded {} values for facet {}", values.size(), facet);
+        return values;
+    }
+}
@@ -0,0 +1,304 @@
+package com.navident.clinic.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.model.FinanceDailyRollup;
+import com.navident.clinic.repository.FinanceDailyRollupRepository;
+import com.navident.clinic.service.FinanceRollupService;
+import com.navident.clinic.util.NumberUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FinanceRollupServiceImpl implements FinanceRollupService {
+
+    private static final AggregationExpression AMOUNT = ConvertOperators.ToDecimal.toDecimal("$amount");
+    private static final List<String> MONTHS =
+            List.of("Jan","Feb","Mar","Apr","May","Jun","Jul","Aug","Sep","Oct","Nov","Dec");
+
+    // Earliest year the trend accepts; the latest is next year, so the year parameter cannot grow the cache
+    private static final int MIN_TREND_YEAR = 1900;
+
+    private final FinanceDailyRollupRepository rollupRepo;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.finance.trend.cache.max-years:32}")
+    private int maxCachedYears;
+
+    // Trend series per year, dropped whenever a transaction dated in that year changes
+    private Cache<Integer, Map<String, Object>> trendCache;
+    // Bumped before every eviction; a load only publishes if no eviction happened while it was querying
+    private final AtomicLong trendGeneration = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        trendCache = Caffeine.newBuilder()
+                .maximumSize(maxCachedYears)
+                .build();
+    }
+
+    @Override
+    public void recordAddition(ClinicFinance txn) {
+        recordAdditions(List.of(txn));
+    }
+
+    @Override
+    public void recordAdditions(List<ClinicFinance> txns) {
+        // Fold the batch per bucket first so a bulk import costs one upsert per day x category x type
+        Map<String, FinanceDailyRollup> deltas = new LinkedHashMap<>();
+        for (ClinicFinance txn : txns) {
+            if (!isRollable(txn)) continue;
+            FinanceDailyRollup delta = deltas.computeIfAbsent(bucketId(txn), id -> FinanceDailyRollup.builder()
+                    .id(id).date(txn.getTransactionDate()).category(txn.getCategory()).type(txn.getType())
+                    .sum(BigDecimal.ZERO).count(0).min(txn.getAmount()).max(txn.getAmount()).build());
+            delta.setSum(delta.getSum().add(txn.getAmount()));
+            delta.setCount(delta.getCount() + 1);
+            delta.setMin(delta.getMin().min(txn.getAmount()));
+            delta.setMax(delta.getMax().max(txn.getAmount()));
+        }
+        if (deltas.isEmpty()) return;
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FinanceDailyRollup.class);
+        for (FinanceDailyRollup delta : deltas.values()) {
+            Update update = new Update()
+                    .setOnInsert("date", delta.getDate())
+                    .setOnInsert("category", delta.getCategory())
+                    .setOnInsert("type", delta.getType())
+                    .inc("sum", new Decimal128(delta.getSum()))
+                    .inc("count", delta.getCount())
+                    .min("min", new Decimal128(delta.getMin()))
+                    .max("max", new Decimal128(delta.getMax()))
+                    .set("updatedAt", LocalDateTime.now());
+            ops.upsert(Query.query(Criteria.where("_id").is(delta.getId())), update);
+        }
+        ops.execute();
+        // Evict after the write: the generation bump stops a trend load that overlapped the write from caching its totals
+        deltas.values().forEach(delta -> evictTrend(delta.getDate().getYear()));
+    }
+
+    @Override
+    public void recordRemoval(ClinicFinance txn) {
+        // min/max cannot be decremented, so the affected bucket is recomputed from its source transactions
+        if (txn.getTransactionDate() != null) {
+            recomputeBucket(txn.getTransactionDate(), txn.getCategory(), txn.getType());
+            evictTrend(txn.getTransactionDate().getYear());
+        }
+    }
+
+    @Override
+    public void recordChange(ClinicFinance before, ClinicFinance after) {
+        recordRemoval(before);
+        if (isRollable(after) && !bucketId(after).equals(bucketId(before))) {
+            recordAddition(after);
+        }
+    }
+
+    @Override
+    public Map<String, BigDecimal> sumByCategory(LocalDate startDate, LocalDate endDate) {
+        return mergeByCategory(rollupRepo.findTotalsByDateRange(startDate, endDate));
+    }
+
+    // Public and static so the finance benchmark measures this exact merge
+    public static Map<String, BigDecimal> mergeByCategory(Iterable<FinanceDailyRollup> rollups) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (FinanceDailyRollup rollup : rollups) {
+            if (rollup.getCategory() != null && rollup.getSum() != null) {
+                totals.merge(rollup.getCategory(), rollup.getSum(), BigDecimal::add);
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    public Map<String, Object> getMonthlyTrend(int year) {
+        int maxYear = LocalDate.now().getYear() + 1;
+        if (year < MIN_TREND_YEAR || year > maxYear) {
+            throw new InvalidDataException("Year must be between " + MIN_TREND_YEAR + " and " + maxYear);
+        }
+        Map<String, Object> cached = trendCache.getIfPresent(year);
+        if (cached != null) {
+            return cached;
+        }
+        // The aggregation runs outside the cache, so a slow query never blocks evictions or other years
+        long started = trendGeneration.get();
+        Map<String, Object> trend = loadMonthlyTrend(year);
+        // Checked inside compute, which evictTrend's invalidate waits for, so totals changed mid-query are not cached
+        trendCache.asMap().compute(year, (key, existing) -> trendGeneration.get() == started ? trend : existing);
+        return trend;
+    }
+
+    private void evictTrend(int year) {
+        trendGeneration.incrementAndGet();
+        trendCache.invalidate(year);
+    }
+
+    private Map<String, Object> loadMonthlyTrend(int year) {
+        // Dates are persisted as midnight in the JVM zone, so $month must be evaluated in that zone too
+        TypedAggregation<FinanceDailyRollup> aggregation = Aggregation.newAggregation(FinanceDailyRollup.class,
+                Aggregation.match(Criteria.where("date").gte(LocalDate.of(year, 1, 1)).lte(LocalDate.of(year, 12, 31))),
+                Aggregation.project("category", "sum")
+                        .and(DateOperators.Month.monthOf("date").withTimezone(DateOperators.Timezone.fromZone(ZoneId.systemDefault())))
+                        .as("month"),
+                Aggregation.group("month", "category").sum("sum").as("total"));
+
+        BigDecimal[] revenue = new BigDecimal[12];
+        BigDecimal[] expenses = new BigDecimal[12];
+        Arrays.fill(revenue, BigDecimal.ZERO);
+        Arrays.fill(expenses, BigDecimal.ZERO);
+        for (Document doc : mongoTemplate.aggregate(aggregation, Document.class)) {
+            Document key = doc.get("_id", Document.class);
+            int month = ((Number) key.get("month")).intValue() - 1;
+            BigDecimal total = NumberUtil.toBigDecimal(doc.get("total"));
+            if ("REVENUE".equals(key.getString("category"))) {
+                revenue[month] = revenue[month].add(total);
+            } else if ("EXPENSE".equals(key.getString("category"))) {
+                expenses[month] = expenses[month].add(total);
+            }
+        }
+
+        List<BigDecimal> profit = new ArrayList<>(12);
+        for (int i = 0; i < 12; i++) {
+            profit.add(revenue[i].subtract(expenses[i]));
+        }
+        Map<String, Object> trend = new HashMap<>();
+        trend.put("year", year);
+        trend.put("months", MONTHS);
+        trend.put("revenue", List.of(revenue));
+        trend.put("expenses", List.of(expenses));
+        trend.put("profit", Collections.unmodifiableList(profit));
+        return Collections.unmodifiableMap(trend);
+    }
+
+    @Override
+    public int rebuild() {
+        TypedAggregation<ClinicFinance> aggregation = Aggregation.newAggregation(ClinicFinance.class,
+                Aggregation.match(Criteria.where("transactionDate").ne(null).and("amount").ne(null)),
+                Aggregation.group("transactionDate", "category", "type")
+                        .sum(AMOUNT).as("sum")
+                        .count().as("count")
+                        .min(AMOUNT).as("min")
+                        .max(AMOUNT).as("max"));
+
+        // Mongo keeps milliseconds; truncating makes "written by this rebuild" an exact comparison
+        LocalDateTime started = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        int buckets = 0;
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FinanceDailyRollup.class);
+        for (Document doc : mongoTemplate.aggregate(aggregation, Document.class)) {
+            Document key = doc.get("_id", Document.class);
+            LocalDate date = mongoTemplate.getConverter().getConversionService()
+                    .convert(key.get("transactionDate"), LocalDate.class);
+            FinanceDailyRollup rollup = toRollup(date, key.getString("category"), key.getString("type"), doc);
+            // Upserted in place, so readers never see an empty or half-filled collection
+            ops.upsert(Query.query(Criteria.where("_id").is(rollup.getId())), new Update()
+                    .set("date", rollup.getDate())
+                    .set("category", rollup.getCategory())
+                    .set("type", rollup.getType())
+                    .set("sum", new Decimal128(rollup.getSum()))
+                    .set("count", rollup.getCount())
+                    .set("min", new Decimal128(rollup.getMin()))
+                    .set("max", new Decimal128(rollup.getMax()))
+                    .set("updatedAt", started));
+            buckets++;
+        }
+        if (buckets > 0) {
+            ops.execute();
+        }
+        // Buckets neither rebuilt nor incremented since the rebuild started have no transactions left.
+        // Increments that land between the aggregation and the upsert are reconciled by the next rebuild.
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("updatedAt").lt(started)), FinanceDailyRollup.class)
+                .getDeletedCount();
+        trendGeneration.incrementAndGet();
+        trendCache.invalidateAll();
+        log.info("Rebuilt {} finance daily rollup buckets, removed {} empty ones", buckets, removed);
+        return buckets;
+    }
+
+    @Scheduled(cron = "${app.finance.rollup.rebuild-cron:0 30 2 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (rollupRepo.count() == 0 && mongoTemplate.estimatedCount(ClinicFinance.class) > 0) {
+            log.info("Finance daily rollups are empty, rebuilding from transactions");
+            rebuild();
+        }
+    }
+
+    private void recomputeBucket(LocalDate date, String category, String type) {
+        TypedAggregation<ClinicFinance> aggregation = Aggregation.newAggregation(ClinicFinance.class,
+                Aggregation.match(Criteria.where("transactionDate").is(date)
+                        .and("category").is(category)
+                        .and("type").is(type)
+                        .and("amount").ne(null)),
+                Aggregation.group()
+                        .sum(AMOUNT).as("sum")
+                        .count().as("count")
+                        .min(AMOUNT).as("min")
+                        .max(AMOUNT).as("max"));
+
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            rollupRepo.deleteById(bucketId(date, category, type));
+        } else {
+            rollupRepo.save(toRollup(date, category, type, result));
+        }
+    }
+
+    private FinanceDailyRollup toRollup(LocalDate date, String category, String type, Document totals) {
+        return FinanceDailyRollup.builder()
+                .id(bucketId(date, category, type))
+                .date(date)
+                .category(category)
+                .type(type)
+                .sum(NumberUtil.toBigDecimal(totals.get("sum")))
+                .count(((Number) totals.get("count")).longValue())
+                .min(NumberUtil.toBigDecimal(totals.get("min")))
+                .max(NumberUtil.toBigDecimal(totals.get("max")))
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private boolean isRollable(ClinicFinance txn) {
+        return txn.getTransactionDate() != null && txn.getAmount() != null;
+    }
+
+    private String bucketId(ClinicFinance txn) {
+        return bucketId(txn.getTransactionDate(), txn.getCategory(), txn.getType());
+    }
+
+    private String bucketId(LocalDate date, String category, String type) {
+        return date + "|" + (category != null ? category : "") + "|" + (type != null ? type : "");
+    }
+}
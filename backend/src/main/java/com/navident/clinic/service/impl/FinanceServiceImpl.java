@@ -2,31 +2,49 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.ClinicFinanceRepository;
+import com.navident.clinic.service.CursorPaginationService;
+import com.navident.clinic.service.FacetService;
+import com.navident.clinic.service.FacetService.Facet;
+import com.navident.clinic.service.FinanceRollupService;
 import com.navident.clinic.service.FinanceService;
+import com.navident.clinic.util.ExcelUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FinanceServiceImpl implements FinanceService {
 
+    private static final String REVENUE = "REVENUE";
+    private static final String EXPENSE = "EXPENSE";
+
     private final ClinicFinanceRepository repo;
+    private final FinanceRollupService rollupService;
+    private final FacetService facetService;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public ClinicFinance createTransaction(ClinicFinance txn) {
         txn.setCreatedAt(LocalDateTime.now());
         txn.setUpdatedAt(LocalDateTime.now());
-        return repo.save(txn);
+        ClinicFinance saved = repo.save(txn);
+        rollupService.recordAddition(saved);
+        registerFacets(saved);
+        return saved;
     }
 
     @Override
@@ -36,24 +54,48 @@ public class FinanceServiceImpl implements FinanceService {
     }
 
     @Override
-    public List<ClinicFinance> searchTransactions(String query) {
-        return repo.findAll().stream()
-                .filter(t -> t.getDescription()!=null && t.getDescription().toLowerCase().contains(query.toLowerCase()))
-                .collect(Collectors.toList());
+    public Page<ClinicFinance> searchTransactions(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+        // Served by the text index on description, vendorName and type, best matches first
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matchingAny(query.trim().split("\\s+"));
+        Pageable byScore = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("score"));
+        return repo.findAllBy(criteria, byScore);
     }
 
     @Override
     public ClinicFinance updateTransaction(String id, ClinicFinance txn) {
         ClinicFinance existing = getTransactionById(id);
+        ClinicFinance before = ClinicFinance.builder()
+                .transactionDate(existing.getTransactionDate())
+                .category(existing.getCategory())
+                .type(existing.getType())
+                .amount(existing.getAmount())
+                .build();
         existing.setAmount(txn.getAmount());
         existing.setDescription(txn.getDescription());
         existing.setUpdatedAt(LocalDateTime.now());
-        return repo.save(existing);
+        ClinicFinance saved = repo.save(existing);
+        rollupService.recordChange(before, saved);
+        return saved;
     }
 
     @Override
     public void deleteTransaction(String id) {
-        repo.delete(getTransactionById(id));
+        ClinicFinance existing = getTransactionById(id);
+        repo.delete(existing);
+        rollupService.recordRemoval(existing);
+        // The deleted values may still be used by other transactions; reload them on next access
+        facetService.invalidate(Facet.FINANCE_CATEGORY);
+        facetService.invalidate(Facet.FINANCE_TYPE);
+        facetService.invalidate(Facet.FINANCE_VENDOR);
+    }
+
+    private void registerFacets(ClinicFinance txn) {
+        facetService.register(Facet.FINANCE_CATEGORY, txn.getCategory());
+        facetService.register(Facet.FINANCE_TYPE, txn.getType());
+        facetService.register(Facet.FINANCE_VENDOR, txn.getVendorName());
     }
 
     @Override
@@ -62,9 +104,10 @@ public class FinanceServiceImpl implements FinanceService {
     }
 
     @Override
-    public byte[] exportFinanceExcel(LocalDate start, LocalDate end) {
-        // Delegate to ExcelUtil.financeToExcel in your actual implementation
-        return new byte[0];
+    public void exportFinanceExcel(LocalDate start, LocalDate end, OutputStream out) {
+        try (Stream<ClinicFinance> rows = repo.streamForExport(start, end)) {
+            ExcelUtil.financeToExcel(rows, out);
+        }
     }
 
     @Override
@@ -79,6 +122,17 @@ public class FinanceServiceImpl implements FinanceService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<ClinicFinance> scrollTransactions(String category, String type, Sort sort, String cursor, int size, boolean withTotal) {
+        Criteria filter = null;
+        if (category != null || type != null) {
+            filter = new Criteria();
+            if (category != null) filter.and("category").is(category);
+            if (type != null) filter.and("type").is(type);
+        }
+        return cursorPagination.scroll(ClinicFinance.class, filter, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<ClinicFinance> getAllTransactions() {
         return repo.findAll();
@@ -91,90 +145,87 @@ public class FinanceServiceImpl implements FinanceService {
 
     @Override
     public List<ClinicFinance> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return repo.findByTransactionDateBetween(startDate, endDate);
+        return repo.findByDateRange(startDate, endDate);
     }
 
     @Override
     public Map<String, Object> getFinancialSummary(LocalDate startDate, LocalDate endDate) {
-        List<ClinicFinance> list = getTransactionsByDateRange(startDate, endDate);
-        BigDecimal revenue = list.stream().filter(t -> "REVENUE".equals(t.getCategory()))
-                .map(ClinicFinance::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal expense = list.stream().filter(t -> "EXPENSE".equals(t.getCategory()))
-                .map(ClinicFinance::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        Map<String,Object> map = new HashMap<>();
-        map.put("totalRevenue", revenue);
-        map.put("totalExpense", expense);
-        map.put("profit", revenue.subtract(expense));
-        return map;
+        return toSummary(repo.sumAmountByCategory(startDate, endDate));
     }
 
+    // Monthly and yearly summaries read the daily rollups instead of rescanning raw transactions
     @Override
     public Map<String, Object> getMonthlyFinancialSummary(int year, int month) {
         LocalDate start = LocalDate.of(year, month, 1);
         LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
-        return getFinancialSummary(start, end);
+        return toSummary(rollupService.sumByCategory(start, end));
     }
 
     @Override
     public Map<String, Object> getYearlyFinancialSummary(int year) {
         LocalDate start = LocalDate.of(year, 1, 1);
         LocalDate end = LocalDate.of(year, 12, 31);
-        return getFinancialSummary(start, end);
+        return toSummary(rollupService.sumByCategory(start, end));
+    }
+
+    private Map<String, Object> toSummary(Map<String, BigDecimal> totals) {
+        BigDecimal revenue = totals.getOrDefault(REVENUE, BigDecimal.ZERO);
+        BigDecimal expense = totals.getOrDefault(EXPENSE, BigDecimal.ZERO);
+        Map<String,Object> map = new HashMap<>();
+        map.put("totalRevenue", revenue);
+        map.put("totalExpense", expense);
+        map.put("profit", revenue.subtract(expense));
+        return map;
     }
 
     @Override
     public BigDecimal getTotalRevenue(LocalDate startDate, LocalDate endDate) {
-        return getTransactionsByDateRange(startDate, endDate).stream()
-                .filter(t -> "REVENUE".equals(t.getCategory()))
-                .map(ClinicFinance::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return repo.sumAmountByCategory(startDate, endDate).getOrDefault(REVENUE, BigDecimal.ZERO);
     }
 
     @Override
     public BigDecimal getTotalExpenses(LocalDate startDate, LocalDate endDate) {
-        return getTransactionsByDateRange(startDate, endDate).stream()
-                .filter(t -> "EXPENSE".equals(t.getCategory()))
-                .map(ClinicFinance::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return repo.sumAmountByCategory(startDate, endDate).getOrDefault(EXPENSE, BigDecimal.ZERO);
     }
 
     @Override
     public BigDecimal getProfit(LocalDate startDate, LocalDate endDate) {
-        return getTotalRevenue(startDate, endDate).subtract(getTotalExpenses(startDate, endDate));
+        Map<String, BigDecimal> totals = repo.sumAmountByCategory(startDate, endDate);
+        return totals.getOrDefault(REVENUE, BigDecimal.ZERO).subtract(totals.getOrDefault(EXPENSE, BigDecimal.ZERO));
     }
 
     @Override
     public List<String> getAllCategories() {
-        return repo.findAll().stream().map(ClinicFinance::getCategory).distinct().collect(Collectors.toList());
+        return facetService.getValues(Facet.FINANCE_CATEGORY);
     }
 
     @Override
     public List<String> getAllTypes() {
-        return repo.findAll().stream().map(ClinicFinance::getType).distinct().collect(Collectors.toList());
+        return facetService.getValues(Facet.FINANCE_TYPE);
     }
 
     @Override
     public List<String> getAllVendors() {
-        return repo.findAll().stream().map(ClinicFinance::getVendorName).distinct().collect(Collectors.toList());
+        return facetService.getValues(Facet.FINANCE_VENDOR);
     }
 
     @Override
     public Map<String, BigDecimal> getCategoryWiseExpenses(LocalDate startDate, LocalDate endDate) {
-        return getTransactionsByDateRange(startDate,endDate).stream()
-                .filter(t -> "EXPENSE".equals(t.getCategory()))
-                .collect(Collectors.groupingBy(ClinicFinance::getType,
-                        Collectors.reducing(BigDecimal.ZERO, ClinicFinance::getAmount, BigDecimal::add)));
+        return repo.sumAmountByType(EXPENSE, startDate, endDate);
     }
 
     @Override
     public Map<String, Object> getMonthlyFinancialTrend(int year) {
-        Map<String,Object> map = new HashMap<>();
-        map.put("months", List.of("Jan","Feb","Mar","Apr","May","Jun","Jul","Aug","Sep","Oct","Nov","Dec"));
-        return map;
+        return rollupService.getMonthlyTrend(year);
     }
 
     @Override
     public List<ClinicFinance> createBulkTransactions(List<ClinicFinance> transactions) {
         transactions.forEach(t -> { t.setCreatedAt(LocalDateTime.now()); t.setUpdatedAt(LocalDateTime.now()); });
-        return repo.saveAll(transactions);
+        List<ClinicFinance> saved = repo.saveAll(transactions);
+        rollupService.recordAdditions(saved);
+        saved.forEach(this::registerFacets);
+        return saved;
     }
 
     @Override
@@ -0,0 +1,291 @@
+package com.navident.clinic.service.impl;
+
+import com.mongodb.client.FindIterable;
+import com.navident.clinic.config.SortableFieldRegistry;
+import com.navident.clinic.model.*;
+import com.navident.clinic.service.IndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Declares the indexes behind every repository query, creates them idempotently and checks query plans.
+// Single-field @Indexed annotations on the models are created by Spring and not repeated here.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndexServiceImpl implements IndexService {
+
+    private final MongoTemplate mongoTemplate;
+    private final SortableFieldRegistry sortableFields;
+
+    @Override
+    public int ensureIndexes() {
+        int ensured = 0;
+        for (Map.Entry<Class<?>, List<IndexDefinition>> entry : declaredIndexes().entrySet()) {
+            for (IndexDefinition index : entry.getValue()) {
+                // createIndexes is a no-op when an identical index already exists
+                mongoTemplate.indexOps(entry.getKey()).ensureIndex(index);
+                ensured++;
+            }
+        }
+        log.info("Ensured {} declared indexes", ensured);
+        return ensured;
+    }
+
+    @Override
+    public List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<Class<?>, List<IndexDefinition>> entry : declaredIndexes().entrySet()) {
+            String collection = mongoTemplate.getCollectionName(entry.getKey());
+            Set<String> existing = new HashSet<>();
+            for (Document info : mongoTemplate.getCollection(collection).listIndexes()) {
+                existing.add(keySignature(info.get("key", Document.class)));
+            }
+            for (IndexDefinition index : entry.getValue()) {
+                String signature = keySignature(index.getIndexKeys());
+                if (!existing.contains(signature)) {
+                    missing.add(collection + " {" + signature + "}");
+                }
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public List<Map<String, Object>> explainRepositoryQueries() {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (Probe probe : probes()) {
+            String collection = mongoTemplate.getCollectionName(probe.entity);
+            Document filter = queryMapper.getMappedObject(probe.query.getQueryObject(),
+                    mongoTemplate.getConverter().getMappingContext().getPersistentEntity(probe.entity));
+            FindIterable<Document> find = mongoTemplate.getCollection(collection).find(filter);
+            if (probe.query.isSorted()) {
+                find = find.sort(queryMapper.getMappedSort(probe.query.getSortObject(),
+                        mongoTemplate.getConverter().getMappingContext().getPersistentEntity(probe.entity))).limit(20);
+            }
+            Document explain = find.explain();
+            Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("query", probe.name);
+            row.put("collection", collection);
+            row.put("stages", stages);
+            row.put("collscan", stages.contains("COLLSCAN"));
+            row.put("inMemorySort", stages.contains("SORT"));
+            report.add(row);
+            if (stages.contains("COLLSCAN")) {
+                log.warn("COLLSCAN for {} on {}: {}", probe.name, collection, stages);
+            }
+            if (stages.contains("SORT")) {
+                log.warn("In-memory SORT for {} on {}: {}", probe.name, collection, stages);
+            }
+        }
+        return report;
+    }
+
+    private Map<Class<?>, List<IndexDefinition>> declaredIndexes() {
+        Map<Class<?>, List<IndexDefinition>> indexes = new LinkedHashMap<>();
+        // Single-field indexes on sortable fields are left out: the {field, _id} sort indexes cover them as prefixes
+        indexes.put(Appointment.class, List.of(
+                new Index().on("patientId", Direction.ASC).on("appointmentDate", Direction.DESC),
+                new Index().on("dentistId", Direction.ASC).on("appointmentDate", Direction.ASC),
+                new Index().on("chairId", Direction.ASC).on("appointmentDate", Direction.ASC),
+                new Index().on("seriesId", Direction.ASC).on("seriesIndex", Direction.ASC),
+                // status IN (...) and appointmentDate >= : equality first, then range
+                new Index().on("status", Direction.ASC).on("appointmentDate", Direction.ASC)));
+        indexes.put(Bill.class, List.of(
+                new Index().on("patientId", Direction.ASC).on("billDate", Direction.DESC),
+                asc("dentistId"),
+                new Index().on("paymentStatus", Direction.ASC).on("dueDate", Direction.ASC),
+                // dueDate < ? and paymentStatus != ?: the range narrows, the $ne is filtered in the index
+                new Index().on("dueDate", Direction.ASC).on("paymentStatus", Direction.ASC)));
+        indexes.put(ClinicFinance.class, List.of(
+                new Index().on("category", Direction.ASC).on("type", Direction.ASC),
+                // $text search of searchTransactions; a collection can only have one text index
+                new TextIndexDefinition.TextIndexDefinitionBuilder()
+                        .named("ClinicFinance_TextIndex") // the name the former @TextIndexed annotations produced
+                        .onField("type", 1F)
+                        .onField("vendorName", 2F)
+                        .onField("description", 3F)
+                        .build()));
+        indexes.put(FinanceDailyRollup.class, List.of(
+                asc("date")));
+        indexes.put(ConsultantDentist.class, List.of(
+                asc("active"),
+                asc("chiefDentist"),
+                asc("specializations"),
+                // Contact fields back the existsBy duplicate checks; the ContainingIgnoreCase searches cannot use an index
+                asc("mobileNumber"),
+                asc("email"),
+                asc("licenseNumber")));
+        indexes.put(Insurance.class, List.of(
+                asc("patientId"),
+                new Index().on("active", Direction.ASC).on("policyEndDate", Direction.ASC)));
+        indexes.put(Patient.class, List.of(
+                // Equality lookups only (findByAddress_City, findByMobileNumber, existsByEmail)
+                asc("address.city"),
+                asc("mobileNumber"),
+                asc("email")));
+        indexes.put(Prescription.class, List.of(
+                new Index().on("patientId", Direction.ASC).on("prescriptionDate", Direction.DESC),
+                asc("dentistId"),
+                asc("requiresFollowUp")));
+        indexes.put(Treatment.class, List.of(
+                asc("availableForBooking")));
+        // Indexes behind the whitelisted sort fields of the list endpoints
+        sortableFields.supportingIndexes().forEach((entity, sortIndexes) ->
+                indexes.merge(entity, new ArrayList<>(sortIndexes), (declared, extra) -> {
+                    List<IndexDefinition> all = new ArrayList<>(declared);
+                    all.addAll(extra);
+                    return all;
+                }));
+        return indexes;
+    }
+
+    // One representative filter per repository method; values only need the right type
+    private List<Probe> probes() {
+        LocalDate today = LocalDate.now();
+        LocalDate monthAgo = today.minusMonths(1);
+        List<Probe> probes = new ArrayList<>(List.of(
+                probe("AppointmentRepository.findByPatientNameContainingIgnoreCaseOrDentistNameContainingIgnoreCase", Appointment.class,
+                        new Criteria().orOperator(Criteria.where("patientName").regex("a", "i"), Criteria.where("dentistName").regex("a", "i"))),
+                probe("AppointmentRepository.findByAppointmentDateBetween", Appointment.class,
+                        Criteria.where("appointmentDate").gt(monthAgo).lt(today)),
+                probe("AppointmentRepository.findByDateRange", Appointment.class,
+                        Criteria.where("appointmentDate").gte(today).lte(today.plusDays(7))),
+                probe("AppointmentRepository.findByPatientId", Appointment.class, Criteria.where("patientId").is("x")),
+                probe("AppointmentRepository.findByDentistId", Appointment.class, Criteria.where("dentistId").is("x")),
+                probe("AppointmentRepository.findByDentistIdAndDateRange", Appointment.class,
+                        Criteria.where("dentistId").is("x").and("appointmentDate").gte(today).lte(today.plusDays(7))),
+                probe("AppointmentRepository.findByChairIdAndDateRange", Appointment.class,
+                        Criteria.where("chairId").is("x").and("appointmentDate").gte(today).lte(today.plusDays(7))),
+                probe("AppointmentRepository.findBySeriesIdAndSeriesIndexGreaterThanEqualOrderBySeriesIndexAsc", Appointment.class,
+                        Criteria.where("seriesId").is("x").and("seriesIndex").gte(3)),
+                probe("AppointmentRepository.findByStatus", Appointment.class, Criteria.where("status").is("SCHEDULED")),
+                probe("AppointmentRepository.findByAppointmentDateGreaterThanEqualAndStatusIn", Appointment.class,
+                        Criteria.where("appointmentDate").gte(today).and("status").in("SCHEDULED", "CONFIRMED")),
+                probe("BillRepository.findByPatientNameContainingIgnoreCaseOrBillIdContainingIgnoreCase", Bill.class,
+                        new Criteria().orOperator(Criteria.where("patientName").regex("a", "i"), Criteria.where("billId").regex("a", "i"))),
+                probe("BillRepository.findByPatientId", Bill.class, Criteria.where("patientId").is("x")),
+                probe("BillRepository.findByDentistId", Bill.class, Criteria.where("dentistId").is("x")),
+                probe("BillRepository.findByPaymentStatus", Bill.class, Criteria.where("paymentStatus").is("PENDING")),
+                probe("BillRepository.findByDueDateBeforeAndPaymentStatusNot", Bill.class,
+                        Criteria.where("dueDate").lt(today).and("paymentStatus").ne("PAID")),
+                probe("ClinicFinanceRepository.findByCategory", ClinicFinance.class, Criteria.where("category").is("REVENUE")),
+                probe("ClinicFinanceRepository.findByType", ClinicFinance.class, Criteria.where("type").is("x")),
+                probe("ClinicFinanceRepository.findByCategoryAndType", ClinicFinance.class,
+                        Criteria.where("category").is("REVENUE").and("type").is("x")),
+                probe("ClinicFinanceRepository.findByDateRange", ClinicFinance.class,
+                        Criteria.where("transactionDate").gte(monthAgo).lte(today)),
+                probe("ClinicFinanceRepository.streamForExport", ClinicFinance.class,
+                        Criteria.where("transactionDate").gte(monthAgo).lte(today)),
+                probe("FinanceDailyRollupRepository.findTotalsByDateRange", FinanceDailyRollup.class,
+                        Criteria.where("date").gte(monthAgo).lte(today)),
+                probe("DentistRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase", ConsultantDentist.class,
+                        new Criteria().orOperator(Criteria.where("firstName").regex("a", "i"), Criteria.where("lastName").regex("a", "i"))),
+                probe("DentistRepository.findByActiveTrue", ConsultantDentist.class, Criteria.where("active").is(true)),
+                probe("DentistRepository.findByChiefDentistTrue", ConsultantDentist.class, Criteria.where("chiefDentist").is(true)),
+                probe("DentistRepository.findBySpecializationsContaining", ConsultantDentist.class,
+                        Criteria.where("specializations").is("x")),
+                probe("DentistRepository.existsByMobileNumber", ConsultantDentist.class, Criteria.where("mobileNumber").is("x")),
+                probe("DentistRepository.existsByEmail", ConsultantDentist.class, Criteria.where("email").is("x")),
+                probe("DentistRepository.existsByLicenseNumber", ConsultantDentist.class, Criteria.where("licenseNumber").is("x")),
+                probe("InsuranceRepository.findByPatientId", Insurance.class, Criteria.where("patientId").is("x")),
+                probe("InsuranceRepository.findByAgencyNameContainingIgnoreCase", Insurance.class,
+                        Criteria.where("agencyName").regex("a", "i")),
+                probe("InsuranceRepository.findByAgencyName", Insurance.class, Criteria.where("agencyName").is("x")),
+                probe("InsuranceRepository.findByActiveTrue", Insurance.class, Criteria.where("active").is(true)),
+                probe("InsuranceRepository.findByPolicyEndDateBetweenAndActiveTrue", Insurance.class,
+                        Criteria.where("policyEndDate").gt(today).lt(today.plusMonths(1)).and("active").is(true)),
+                probe("PatientRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase", Patient.class,
+                        new Criteria().orOperator(Criteria.where("firstName").regex("a", "i"), Criteria.where("lastName").regex("a", "i"))),
+                probe("PatientRepository.findByAddress_City", Patient.class, Criteria.where("address.city").is("x")),
+                probe("PatientRepository.findByMobileNumber", Patient.class, Criteria.where("mobileNumber").is("x")),
+                probe("PatientRepository.existsByEmail", Patient.class, Criteria.where("email").is("x")),
+                probe("PrescriptionRepository.findByPatientNameContainingIgnoreCaseOrDentistNameContainingIgnoreCase", Prescription.class,
+                        new Criteria().orOperator(Criteria.where("patientName").regex("a", "i"), Criteria.where("dentistName").regex("a", "i"))),
+                probe("PrescriptionRepository.findByPatientId", Prescription.class, Criteria.where("patientId").is("x")),
+                probe("PrescriptionRepository.findByDentistId", Prescription.class, Criteria.where("dentistId").is("x")),
+                probe("PrescriptionRepository.findByPrescriptionDateBetween", Prescription.class,
+                        Criteria.where("prescriptionDate").gt(monthAgo).lt(today)),
+                probe("PrescriptionRepository.findByStatus", Prescription.class, Criteria.where("status").is("ACTIVE")),
+                probe("PrescriptionRepository.findByRequiresFollowUpTrue", Prescription.class,
+                        Criteria.where("requiresFollowUp").is(true)),
+                probe("TreatmentRepository.findByTreatmentNameContainingIgnoreCase", Treatment.class,
+                        Criteria.where("treatmentName").regex("a", "i")),
+                probe("TreatmentRepository.findByAvailableForBookingTrue", Treatment.class,
+                        Criteria.where("availableForBooking").is(true)),
+                probe("TreatmentRepository.findByCategory", Treatment.class, Criteria.where("category").is("x")),
+                probe("UserRepository.findByUsername", User.class, Criteria.where("username").is("x")),
+                probe("UserRepository.findByUsernameContainingIgnoreCaseOr...EmailContainingIgnoreCase", User.class,
+                        new Criteria().orOperator(Criteria.where("username").regex("a", "i"), Criteria.where("firstName").regex("a", "i"),
+                                Criteria.where("lastName").regex("a", "i"), Criteria.where("email").regex("a", "i")))));
+        // Unfiltered list pages, as the list and /scroll endpoints issue them for each sortable field
+        sortableFields.supportingIndexes().forEach((entity, indexes) -> indexes.forEach(index -> {
+            String field = index.getIndexKeys().keySet().iterator().next();
+            probes.add(new Probe("sort " + entity.getSimpleName() + "." + field, entity,
+                    new Query().with(Sort.by(field, "id"))));
+        }));
+        return probes;
+    }
+
+    private static Index asc(String field) {
+        return new Index().on(field, Direction.ASC);
+    }
+
+    private static Probe probe(String name, Class<?> entity, Criteria criteria) {
+        return new Probe(name, entity, new Query(criteria));
+    }
+
+    // "field:1,other:-1" in key order; numeric types differ between what we declare and what the server returns.
+    // Every text index is stored under the same internal keys whatever its fields.
+    private static String keySignature(Document keys) {
+        if (keys.containsKey("_fts") || keys.containsValue("text")) {
+            return "_fts:text,_ftsx:1";
+        }
+        return keys.entrySet().stream()
+                .map(e -> e.getKey() + ":" + (e.getValue() instanceof Number n ? String.valueOf(n.intValue()) : e.getValue()))
+                .collect(Collectors.joining(","));
+    }
+
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document doc) {
+            Object stage = doc.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            doc.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    private static class Probe {
+        final String name;
+        final Class<?> entity;
+        final Query query;
+
+        Probe(String name, Class<?> entity, Query query) {
+            this.name = name;
+            this.entity = entity;
+            this.query = query;
+        }
+    }
+}
@@ -2,18 +2,26 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.Insurance;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.InsuranceRepository;
+import com.navident.clinic.service.FacetService;
+import com.navident.clinic.service.FacetService.Facet;
 import com.navident.clinic.service.InsuranceService;
+import com.navident.clinic.service.CursorPaginationService;
+import com.navident.clinic.util.ExcelUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,12 +29,16 @@ import java.util.List;
 public class InsuranceServiceImpl implements InsuranceService {
 
     private final InsuranceRepository repo;
+    private final FacetService facetService;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public Insurance createInsurance(Insurance insurance) {
         insurance.setCreatedAt(LocalDateTime.now());
         insurance.setUpdatedAt(LocalDateTime.now());
-        return repo.save(insurance);
+        Insurance saved = repo.save(insurance);
+        facetService.register(Facet.INSURANCE_AGENCY, saved.getAgencyName());
+        return saved;
     }
 
     @Override
@@ -47,12 +59,15 @@ public class InsuranceServiceImpl implements InsuranceService {
         existing.setPolicyNumber(insurance.getPolicyNumber());
         existing.setPolicyEndDate(insurance.getPolicyEndDate());
         existing.setUpdatedAt(LocalDateTime.now());
-        return repo.save(existing);
+        Insurance saved = repo.save(existing);
+        facetService.invalidate(Facet.INSURANCE_AGENCY);
+        return saved;
     }
 
     @Override
     public void deleteInsurance(String id) {
         repo.delete(getInsuranceById(id));
+        facetService.invalidate(Facet.INSURANCE_AGENCY);
     }
 
     @Override
@@ -61,8 +76,10 @@ public class InsuranceServiceImpl implements InsuranceService {
     }
 
     @Override
-    public byte[] exportInsuranceExcel(String patientId) {
-        return new byte[0]; // Call ExcelUtil in full impl
+    public void exportInsuranceExcel(String patientId, OutputStream out) {
+        try (Stream<Insurance> rows = repo.streamByPatientId(patientId)) {
+            ExcelUtil.insuranceToExcel(rows, out);
+        }
     }
 
     @Override
@@ -70,6 +87,11 @@ public class InsuranceServiceImpl implements InsuranceService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<Insurance> scrollInsurance(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(Insurance.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<Insurance> getAllInsurance() {
         return repo.findAll();
@@ -80,6 +102,11 @@ public class InsuranceServiceImpl implements InsuranceService {
         return repo.findByAgencyName(agencyName);
     }
 
+    @Override
+    public List<String> getAllAgencyNames() {
+        return facetService.getValues(Facet.INSURANCE_AGENCY);
+    }
+
     @Override
     public List<Insurance> getActiveInsurance() {
         return repo.findByActiveTrue();
@@ -2,16 +2,22 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.Patient;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.PatientRepository;
 import com.navident.clinic.service.PatientService;
+import com.navident.clinic.service.CursorPaginationService;
+import com.navident.clinic.util.ExcelUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +25,7 @@ import java.util.List;
 public class PatientServiceImpl implements PatientService {
 
     private final PatientRepository repo;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public Patient createPatient(Patient patient) {
@@ -59,6 +66,11 @@ public class PatientServiceImpl implements PatientService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<Patient> scrollPatients(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(Patient.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<Patient> getAllPatients() {
         return repo.findAll();
@@ -83,4 +95,11 @@ public class PatientServiceImpl implements PatientService {
     public boolean existsByEmail(String email) {
         return repo.existsByEmail(email);
     }
+
+    @Override
+    public void exportPatientsExcel(OutputStream out) {
+        try (Stream<Patient> rows = repo.streamAllBy()) {
+            ExcelUtil.patientsToExcel(rows, out);
+        }
+    }
 }
@@ -2,19 +2,24 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.Prescription;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.PrescriptionRepository;
 import com.navident.clinic.service.PrescriptionService;
+import com.navident.clinic.service.CursorPaginationService;
 import com.navident.clinic.util.ExcelUtil;
 import com.navident.clinic.util.PdfUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +27,7 @@ import java.util.List;
 public class PrescriptionServiceImpl implements PrescriptionService {
 
     private final PrescriptionRepository repo;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public Prescription createPrescription(Prescription prescription) {
@@ -57,8 +63,10 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     }
 
     @Override
-    public byte[] exportPrescriptionsExcel(String patientId) {
-        return ExcelUtil.prescriptionsToExcel(repo.findByPatientId(patientId));
+    public void exportPrescriptionsExcel(String patientId, OutputStream out) {
+        try (Stream<Prescription> rows = repo.streamByPatientId(patientId)) {
+            ExcelUtil.prescriptionsToExcel(rows, out);
+        }
     }
 
     @Override
@@ -71,6 +79,11 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<Prescription> scrollPrescriptions(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(Prescription.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<Prescription> getAllPrescriptions() {
         return repo.findAll();
@@ -102,11 +115,12 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     }
 
     @Override
-    public byte[] exportAllPrescriptionsExcel(LocalDate startDate, LocalDate endDate) {
-        if (startDate != null && endDate != null) {
-            return ExcelUtil.prescriptionsToExcel(repo.findByPrescriptionDateBetween(startDate, endDate));
+    public void exportAllPrescriptionsExcel(LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (Stream<Prescription> rows = startDate != null && endDate != null
+                ? repo.streamByPrescriptionDateBetween(startDate, endDate)
+                : repo.streamAllBy()) {
+            ExcelUtil.prescriptionsToExcel(rows, out);
         }
-        return ExcelUtil.prescriptionsToExcel(repo.findAll());
     }
 
     @Override
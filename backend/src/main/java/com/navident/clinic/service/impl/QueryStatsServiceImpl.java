@@ -0,0 +1,60 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.config.QueryProfiler;
+import com.navident.clinic.service.QueryStatsService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Admin view over the repository meters recorded by QueryProfiler, slowest total time first
+@Service
+@RequiredArgsConstructor
+public class QueryStatsServiceImpl implements QueryStatsService {
+
+    private final MeterRegistry meterRegistry;
+    private final QueryProfiler queryProfiler;
+
+    @Override
+    public List<Map<String, Object>> getRepositoryMethodStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (Timer timer : meterRegistry.find(QueryProfiler.TIMER).timers()) {
+            String repository = timer.getId().getTag("repository");
+            String method = timer.getId().getTag("method");
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("repository", repository);
+            row.put("method", method);
+            row.put("count", snapshot.count());
+            row.put("totalMs", snapshot.total(TimeUnit.MILLISECONDS));
+            row.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            row.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                row.put("p" + Math.round(p.percentile() * 100) + "Ms", p.value(TimeUnit.MILLISECONDS));
+            }
+            DistributionSummary documents = summary(QueryProfiler.DOCUMENTS, repository, method);
+            DistributionSummary bytes = summary(QueryProfiler.BYTES, repository, method);
+            row.put("meanDocuments", documents != null ? documents.mean() : 0);
+            row.put("totalBytes", bytes != null ? bytes.totalAmount() : 0);
+            stats.add(row);
+        }
+        stats.sort(Comparator.comparingDouble((Map<String, Object> row) -> (Double) row.get("totalMs")).reversed());
+        return stats;
+    }
+
+    @Override
+    public List<Map<String, Object>> getSlowCommands() {
+        return queryProfiler.getSlowCommands();
+    }
+
+    private DistributionSummary summary(String name, String repository, String method) {
+        return meterRegistry.find(name).tags("repository", repository, "method", method).summary();
+    }
+}
@@ -2,12 +2,17 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.Treatment;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.TreatmentRepository;
+import com.navident.clinic.service.FacetService;
+import com.navident.clinic.service.FacetService.Facet;
 import com.navident.clinic.service.TreatmentService;
+import com.navident.clinic.service.CursorPaginationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,12 +24,16 @@ import java.util.List;
 public class TreatmentServiceImpl implements TreatmentService {
 
     private final TreatmentRepository repo;
+    private final FacetService facetService;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public Treatment createTreatment(Treatment treatment) {
         treatment.setCreatedAt(LocalDateTime.now());
         treatment.setUpdatedAt(LocalDateTime.now());
-        return repo.save(treatment);
+        Treatment saved = repo.save(treatment);
+        facetService.register(Facet.TREATMENT_CATEGORY, saved.getCategory());
+        return saved;
     }
 
     @Override
@@ -46,12 +55,15 @@ public class TreatmentServiceImpl implements TreatmentService {
         existing.setCategory(treatment.getCategory());
         existing.setAvailableForBooking(treatment.isAvailableForBooking());
         existing.setUpdatedAt(LocalDateTime.now());
-        return repo.save(existing);
+        Treatment saved = repo.save(existing);
+        facetService.invalidate(Facet.TREATMENT_CATEGORY);
+        return saved;
     }
 
     @Override
     public void deleteTreatment(String id) {
         repo.delete(getTreatmentById(id));
+        facetService.invalidate(Facet.TREATMENT_CATEGORY);
     }
 
     @Override
@@ -64,6 +76,11 @@ public class TreatmentServiceImpl implements TreatmentService {
         return repo.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<Treatment> scrollTreatments(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(Treatment.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<Treatment> getAllTreatments() {
         return repo.findAll();
@@ -74,6 +91,11 @@ public class TreatmentServiceImpl implements TreatmentService {
         return repo.findByCategory(category);
     }
 
+    @Override
+    public List<String> getAllCategories() {
+        return facetService.getValues(Facet.TREATMENT_CATEGORY);
+    }
+
     @Override
     public boolean existsByTreatmentName(String treatmentName) {
         return repo.existsByTreatmentName(treatmentName);
@@ -2,16 +2,22 @@ package com.navident.clinic.service.impl;
 
 import com.navident.clinic.exception.ResourceNotFoundException;
 import com.navident.clinic.model.User;
+import com.navident.clinic.model.dto.CursorPage;
 import com.navident.clinic.repository.UserRepository;
+import com.navident.clinic.security.SecurityVersionRegistry;
+import com.navident.clinic.security.UserDetailsServiceImpl;
+import com.navident.clinic.service.CursorPaginationService;
 import com.navident.clinic.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -20,6 +26,9 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final SecurityVersionRegistry securityVersions;
+    private final CursorPaginationService cursorPagination;
 
     @Override
     public User createUser(User user) {
@@ -48,6 +57,11 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll(pageable);
     }
 
+    @Override
+    public CursorPage<User> scrollUsers(Sort sort, String cursor, int size, boolean withTotal) {
+        return cursorPagination.scroll(User.class, null, sort, cursor, size, withTotal);
+    }
+
     @Override
     public List<User> searchUsers(String query) {
         return userRepository.findByUsernameContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
@@ -58,6 +72,10 @@ public class UserServiceImpl implements UserService {
     public User updateUser(String id, User user) {
         User existing = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        // The email is a login and recovery identity, so changing it revokes tokens like a role or password change
+        boolean revokeTokens = !Objects.equals(existing.getRole(), user.getRole())
+                || !Objects.equals(existing.getEmail(), user.getEmail())
+                || user.getPassword() != null;
         existing.setFirstName(user.getFirstName());
         existing.setLastName(user.getLastName());
         existing.setEmail(user.getEmail());
@@ -65,13 +83,47 @@ public class UserServiceImpl implements UserService {
         if (user.getPassword() != null) {
             existing.setPassword(user.getPassword());
         }
+        if (revokeTokens) {
+            existing.setSecurityVersion(existing.getSecurityVersion() + 1);
+        }
         existing.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(existing);
+        User saved = userRepository.save(existing);
+        userDetailsService.evictUser(saved.getUsername());
+        securityVersions.record(saved);
+        return saved;
     }
 
     @Override
     public void deleteUser(String id) {
+        Optional<User> existing = userRepository.findById(id);
         userRepository.deleteById(id);
+        existing.ifPresent(user -> userDetailsService.evictUser(user.getUsername()));
+        securityVersions.revoke(id);
+    }
+
+    @Override
+    public User toggleActive(String id) {
+        User existing = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        existing.setActive(!existing.isActive());
+        existing.setSecurityVersion(existing.getSecurityVersion() + 1);
+        existing.setUpdatedAt(LocalDateTime.now());
+        User saved = userRepository.save(existing);
+        userDetailsService.evictUser(saved.getUsername());
+        securityVersions.record(saved);
+        return saved;
+    }
+
+    @Override
+    public void changePassword(String id, String encodedPassword) {
+        User existing = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        existing.setPassword(encodedPassword);
+        existing.setSecurityVersion(existing.getSecurityVersion() + 1);
+        existing.setUpdatedAt(LocalDateTime.now());
+        User saved = userRepository.save(existing);
+        userDetailsService.evictUser(saved.getUsername());
+        securityVersions.record(saved);
     }
 
     @Override
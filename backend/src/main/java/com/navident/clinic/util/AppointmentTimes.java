@@ -0,0 +1,61 @@
+package com.navident.clinic.util;
+
+import com.navident.clinic.model.Appointment;
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+// Reads when an appointment starts and how long it blocks the dentist, for rows written before startAt and
+// durationMinutes existed as well as for new ones
+@UtilityClass
+public class AppointmentTimes {
+
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter[] TIME_FORMATS = {
+            DateTimeFormatter.ofPattern("H:mm"),
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("h:mm a").toFormatter(Locale.ENGLISH)
+    };
+
+    public LocalTime parseTime(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        for (DateTimeFormatter format : TIME_FORMATS) {
+            try {
+                return LocalTime.parse(trimmed, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    public String format(LocalTime time) {
+        return time.format(HH_MM);
+    }
+
+    // Minute of the day the appointment starts, or -1 when neither startAt nor appointmentTime can be read
+    public int startMinute(Appointment appointment) {
+        if (appointment.getStartAt() != null) {
+            LocalTime time = appointment.getStartAt().toLocalTime();
+            return time.getHour() * 60 + time.getMinute();
+        }
+        LocalTime time = parseTime(appointment.getAppointmentTime());
+        return time != null ? time.getHour() * 60 + time.getMinute() : -1;
+    }
+
+    public int durationMinutes(Appointment appointment, int defaultMinutes) {
+        Integer duration = appointment.getDurationMinutes();
+        return duration != null && duration > 0 ? duration : defaultMinutes;
+    }
+
+    // Whether the appointment holds its dentist and chair: scheduled on a known day and time and not cancelled
+    public boolean occupies(Appointment appointment) {
+        return appointment.getAppointmentDate() != null
+                && !"CANCELLED".equalsIgnoreCase(appointment.getStatus())
+                && startMinute(appointment) >= 0;
+    }
+}
@@ -3,26 +3,27 @@ package com.navident.clinic.util;
 import com.navident.clinic.model.*;
 import lombok.experimental.UtilityClass;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @UtilityClass
 public class ExcelUtil {
 
-    private byte[] toByteArray(Workbook workbook) throws IOException {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
+    // Rows kept in memory by SXSSF; older rows are flushed to a compressed temp file
+    private static final int ROW_WINDOW = 200;
 
-    public byte[] appointmentsToExcel(List<Appointment> list) {
-        return writeSimpleExcel("Appointments",
+    public void appointmentsToExcel(Stream<Appointment> rows, OutputStream out) {
+        writeStreamingExcel("Appointments",
                 new String[]{"ID", "Patient", "Dentist", "Date", "Time", "Status", "Notes"},
-                list, (row, ap) -> {
+                new int[]{26, 25, 25, 12, 10, 12, 40},
+                rows, (row, ap) -> {
                     row.createCell(0).setCellValue(ap.getId());
                     row.createCell(1).setCellValue(ap.getPatientName());
                     row.createCell(2).setCellValue(ap.getDentistName());
@@ -30,13 +31,14 @@ public class ExcelUtil {
                     row.createCell(4).setCellValue(ap.getAppointmentTime() != null ? ap.getAppointmentTime() : "");
                     row.createCell(5).setCellValue(ap.getStatus());
                     row.createCell(6).setCellValue(ap.getNotes() != null ? ap.getNotes() : "");
-                });
+                }, out);
     }
 
-    public byte[] patientsToExcel(List<Patient> list) {
-        return writeSimpleExcel("Patients",
+    public void patientsToExcel(Stream<Patient> rows, OutputStream out) {
+        writeStreamingExcel("Patients",
                 new String[]{"ID", "Name", "Email", "Mobile", "Gender", "DOB", "Blood Group", "City"},
-                list, (row, p) -> {
+                new int[]{26, 30, 30, 16, 8, 12, 12, 20},
+                rows, (row, p) -> {
                     row.createCell(0).setCellValue(p.getId());
                     row.createCell(1).setCellValue(p.getFirstName() + " " + p.getLastName());
                     row.createCell(2).setCellValue(p.getEmail());
@@ -45,13 +47,14 @@ public class ExcelUtil {
                     row.createCell(5).setCellValue(p.getDateOfBirth());
                     row.createCell(6).setCellValue(p.getBloodGroup());
                     row.createCell(7).setCellValue(p.getAddress() != null ? p.getAddress().getCity() : "");
-                });
+                }, out);
     }
 
-    public byte[] billsToExcel(List<Bill> list) {
-        return writeSimpleExcel("Bills",
+    public void billsToExcel(Stream<Bill> rows, OutputStream out) {
+        writeStreamingExcel("Bills",
                 new String[]{"ID", "Bill#", "Patient", "Dentist", "Bill Date", "Due Date", "Amount Due", "Amount Paid", "Status"},
-                list, (row, b) -> {
+                new int[]{26, 14, 25, 25, 12, 12, 14, 14, 12},
+                rows, (row, b) -> {
                     row.createCell(0).setCellValue(b.getId());
                     row.createCell(1).setCellValue(b.getBillId());
                     row.createCell(2).setCellValue(b.getPatientName());
@@ -61,13 +64,14 @@ public class ExcelUtil {
                     row.createCell(6).setCellValue(b.getAmountDue() != null ? b.getAmountDue().toString() : "");
                     row.createCell(7).setCellValue(b.getAmountPaid() != null ? b.getAmountPaid().toString() : "");
                     row.createCell(8).setCellValue(b.getPaymentStatus());
-                });
+                }, out);
     }
 
-    public byte[] dentistsToExcel(List<ConsultantDentist> list) {
-        return writeSimpleExcel("Dentists",
+    public void dentistsToExcel(Stream<ConsultantDentist> rows, OutputStream out) {
+        writeStreamingExcel("Dentists",
                 new String[]{"ID", "First Name", "Last Name", "License#", "Email", "Mobile", "Specializations", "Active"},
-                list, (row, d) -> {
+                new int[]{26, 16, 16, 16, 30, 16, 35, 8},
+                rows, (row, d) -> {
                     row.createCell(0).setCellValue(d.getId());
                     row.createCell(1).setCellValue(d.getFirstName());
                     row.createCell(2).setCellValue(d.getLastName());
@@ -76,13 +80,14 @@ public class ExcelUtil {
                     row.createCell(5).setCellValue(d.getMobileNumber());
                     row.createCell(6).setCellValue(d.getSpecializations() != null ? String.join(", ", d.getSpecializations()) : "");
                     row.createCell(7).setCellValue(d.isActive());
-                });
+                }, out);
     }
 
-    public byte[] prescriptionsToExcel(List<Prescription> list) {
-        return writeSimpleExcel("Prescriptions",
+    public void prescriptionsToExcel(Stream<Prescription> rows, OutputStream out) {
+        writeStreamingExcel("Prescriptions",
                 new String[]{"ID", "Patient", "Dentist", "Date", "Diagnosis", "Medications", "Status"},
-                list, (row, p) -> {
+                new int[]{26, 25, 25, 12, 35, 40, 12},
+                rows, (row, p) -> {
                     row.createCell(0).setCellValue(p.getId());
                     row.createCell(1).setCellValue(p.getPatientName());
                     row.createCell(2).setCellValue(p.getDentistName());
@@ -90,25 +95,96 @@ public class ExcelUtil {
                     row.createCell(4).setCellValue(p.getDiagnosis());
                     row.createCell(5).setCellValue(p.getMedications());
                     row.createCell(6).setCellValue(p.getStatus());
-                });
+                }, out);
+    }
+
+    public void financeToExcel(Stream<ClinicFinance> rows, OutputStream out) {
+        // Totals are accumulated while rows are written so the footer needs no second query
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        writeStreamingExcel("Finance",
+                new String[]{"Date", "Category", "Type", "Vendor", "Description", "Status", "Amount"},
+                new int[]{12, 12, 20, 25, 40, 12, 14},
+                rows, (row, f) -> {
+                    row.createCell(0).setCellValue(f.getTransactionDate() != null ? f.getTransactionDate().toString() : "");
+                    row.createCell(1).setCellValue(f.getCategory());
+                    row.createCell(2).setCellValue(f.getType());
+                    row.createCell(3).setCellValue(f.getVendorName() != null ? f.getVendorName() : "");
+                    row.createCell(4).setCellValue(f.getDescription() != null ? f.getDescription() : "");
+                    row.createCell(5).setCellValue(f.getStatus());
+                    if (f.getAmount() != null) {
+                        row.createCell(6).setCellValue(f.getAmount().doubleValue());
+                        totals.merge(String.valueOf(f.getCategory()), f.getAmount(), BigDecimal::add);
+                    }
+                },
+                (sheet, rowIdx) -> {
+                    rowIdx++; // blank separator row
+                    for (Map.Entry<String, BigDecimal> total : totals.entrySet()) {
+                        Row row = sheet.createRow(rowIdx++);
+                        row.createCell(5).setCellValue("Total " + total.getKey());
+                        row.createCell(6).setCellValue(total.getValue().doubleValue());
+                    }
+                    BigDecimal net = totals.getOrDefault("REVENUE", BigDecimal.ZERO)
+                            .subtract(totals.getOrDefault("EXPENSE", BigDecimal.ZERO));
+                    Row row = sheet.createRow(rowIdx);
+                    row.createCell(5).setCellValue("Net");
+                    row.createCell(6).setCellValue(net.doubleValue());
+                }, out);
+    }
+
+    public void insuranceToExcel(Stream<Insurance> rows, OutputStream out) {
+        writeStreamingExcel("Insurance",
+                new String[]{"ID", "Agency", "Policy#", "Policy End", "Active", "Claim Submitted", "Claim Approved",
+                        "Claim Amount", "Approved Amount", "Status", "Treatment"},
+                new int[]{26, 25, 18, 12, 8, 10, 10, 14, 14, 12, 35},
+                rows, (row, i) -> {
+                    row.createCell(0).setCellValue(i.getId());
+                    row.createCell(1).setCellValue(i.getAgencyName());
+                    row.createCell(2).setCellValue(i.getPolicyNumber());
+                    row.createCell(3).setCellValue(i.getPolicyEndDate() != null ? i.getPolicyEndDate().toString() : "");
+                    row.createCell(4).setCellValue(i.isActive());
+                    row.createCell(5).setCellValue(i.isClaimSubmitted());
+                    row.createCell(6).setCellValue(i.isClaimApproved());
+                    row.createCell(7).setCellValue(i.getClaimAmount() != null ? i.getClaimAmount().toString() : "");
+                    row.createCell(8).setCellValue(i.getApprovedClaimAmount() != null ? i.getApprovedClaimAmount().toString() : "");
+                    row.createCell(9).setCellValue(i.getStatus());
+                    row.createCell(10).setCellValue(i.getTreatmentDescription() != null ? i.getTreatmentDescription() : "");
+                }, out);
     }
 
-    private <T> byte[] writeSimpleExcel(String sheetName, String[] headers, List<T> data, RowFiller<T> filler) {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    private <T> void writeStreamingExcel(String sheetName, String[] headers, int[] widths,
+                                         Stream<T> data, RowFiller<T> filler, OutputStream out) {
+        writeStreamingExcel(sheetName, headers, widths, data, filler, null, out);
+    }
+
+    // Column widths are fixed (in characters) because autoSizeColumn would have to measure every cell
+    private <T> void writeStreamingExcel(String sheetName, String[] headers, int[] widths,
+                                         Stream<T> data, RowFiller<T> filler, FooterWriter footer, OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
             Sheet sheet = workbook.createSheet(sheetName);
+            for (int i = 0; i < widths.length; i++) {
+                sheet.setColumnWidth(i, widths[i] * 256);
+            }
             int rowIdx = 0;
             Row headerRow = sheet.createRow(rowIdx++);
             for (int i = 0; i < headers.length; i++) {
                 headerRow.createCell(i).setCellValue(headers[i]);
             }
-            for (T obj : data) {
+            Iterator<T> it = data.iterator();
+            while (it.hasNext()) {
                 Row row = sheet.createRow(rowIdx++);
-                filler.fill(row, obj);
+                filler.fill(row, it.next());
+                ExportProgress.rowWritten();
             }
-            for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
-            return toByteArray(workbook);
+            if (footer != null) {
+                footer.write(sheet, rowIdx);
+            }
+            workbook.write(out);
         } catch (IOException e) {
             throw new RuntimeException("Error generating Excel for " + sheetName, e);
+        } finally {
+            workbook.dispose();
         }
     }
 
@@ -116,4 +192,9 @@ public class ExcelUtil {
     public interface RowFiller<T> {
         void fill(Row row, T t);
     }
+
+    @FunctionalInterface
+    public interface FooterWriter {
+        void write(Sheet sheet, int firstRowIdx);
+    }
 }
@@ -0,0 +1,25 @@
+package com.navident.clinic.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Row counter bound to the export worker thread so background jobs can report progress while streaming
+@UtilityClass
+public class ExportProgress {
+
+    private static final ThreadLocal<AtomicLong> ROWS = new ThreadLocal<>();
+
+    public void bind(AtomicLong counter) {
+        ROWS.set(counter);
+    }
+
+    public void rowWritten() {
+        AtomicLong counter = ROWS.get();
+        if (counter != null) counter.incrementAndGet();
+    }
+
+    public void clear() {
+        ROWS.remove();
+    }
+}
@@ -0,0 +1,86 @@
+package com.navident.clinic.util;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bookings of one dentist or chair on one day as [start, end) minute intervals, ordered by start.
+// Any interval overlapping [s, e) must start after s - longest, so an overlap query is a single
+// O(log n + k) range scan. Existing overlaps loaded from old data are tolerated. Not thread-safe.
+public final class IntervalSchedule {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final TreeSet<Interval> intervals = new TreeSet<>();
+    private int longest;
+
+    public List<Interval> overlapping(int start, int end) {
+        List<Interval> hits = new ArrayList<>();
+        for (Interval interval : intervals.subSet(Interval.probe(start - longest), true, Interval.probe(end), false)) {
+            if (interval.end > start) {
+                hits.add(interval);
+            }
+        }
+        return hits;
+    }
+
+    public Interval add(String appointmentId, int start, int end) {
+        Interval interval = new Interval(appointmentId, start, end, SEQUENCE.incrementAndGet());
+        intervals.add(interval);
+        longest = Math.max(longest, end - start);
+        return interval;
+    }
+
+    public void remove(Interval interval) {
+        intervals.remove(interval);
+    }
+
+    public Interval find(String appointmentId, int start) {
+        for (Interval interval : intervals.subSet(Interval.probe(start), true, Interval.probe(start + 1), false)) {
+            if (Objects.equals(interval.appointmentId, appointmentId)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+
+    public static final class Interval implements Comparable<Interval> {
+        private String appointmentId;
+        private final int start;
+        private final int end;
+        private final long sequence; // tie-breaker so equal starts can coexist
+
+        private Interval(String appointmentId, int start, int end, long sequence) {
+            this.appointmentId = appointmentId;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+        }
+
+        private static Interval probe(int start) {
+            return new Interval(null, start, start, Long.MIN_VALUE);
+        }
+
+        public String getAppointmentId() {
+            return appointmentId;
+        }
+
+        // New appointments only get their id once saved
+        public void setAppointmentId(String appointmentId) {
+            this.appointmentId = appointmentId;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        @Override
+        public int compareTo(Interval other) {
+            int byStart = Integer.compare(start, other.start);
+            return byStart != 0 ? byStart : Long.compare(sequence, other.sequence);
+        }
+    }
+}
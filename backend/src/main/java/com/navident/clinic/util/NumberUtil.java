@@ -0,0 +1,24 @@
+package com.navident.clinic.util;
+
+import lombok.experimental.UtilityClass;
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+
+@UtilityClass
+public class NumberUtil {
+
+    // Aggregation results come back as Decimal128 for $toDecimal sums, other numeric BSON types otherwise
+    public BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,88 @@
+package com.navident.clinic.util;
+
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.model.dto.RecurrenceRule;
+import lombok.experimental.UtilityClass;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+// Turns a first start and a RecurrenceRule into the start of every occurrence on or after it, in order
+@UtilityClass
+public class RecurrenceExpander {
+
+    public List<LocalDateTime> expand(LocalDateTime first, RecurrenceRule rule, int maxOccurrences) {
+        if (rule.getCount() == null && rule.getUntil() == null) {
+            throw new InvalidDataException("A recurrence needs a count, an until date or both");
+        }
+        if (rule.getUntil() != null && rule.getUntil().isBefore(first.toLocalDate())) {
+            throw new InvalidDataException("Recurrence until date is before the first occurrence");
+        }
+        int limit = rule.getCount() != null ? rule.getCount() : Integer.MAX_VALUE;
+        LocalDate until = rule.getUntil() != null ? rule.getUntil() : LocalDate.MAX;
+        Set<DayOfWeek> weekdays;
+        if (rule.getWeekdays() != null && !rule.getWeekdays().isEmpty()) {
+            weekdays = EnumSet.copyOf(rule.getWeekdays());
+        } else if (rule.getFrequency() == RecurrenceRule.Frequency.WEEKLY) {
+            weekdays = EnumSet.of(first.getDayOfWeek());
+        } else {
+            weekdays = EnumSet.allOf(DayOfWeek.class);
+        }
+
+        // Every 7th day falls on the same weekday, so these steps never reach another one
+        if (rule.getFrequency() == RecurrenceRule.Frequency.DAILY && rule.getInterval() % 7 == 0
+                && !weekdays.contains(first.getDayOfWeek())) {
+            throw new InvalidDataException("A daily recurrence every " + rule.getInterval()
+                    + " days only falls on " + first.getDayOfWeek() + ", which is not one of its weekdays");
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        // Any rule that can match does so at least once every 7 periods; the bound catches the ones that cannot
+        long maxPeriods = (maxOccurrences + 1L) * 7;
+        // Each period is computed from the first date rather than the previous one, so Jan 31 + 1 month
+        // gives Feb 28/29 and then Mar 31 again instead of drifting to the 28th
+        for (long period = 0; dates.size() < limit; period++) {
+            long step = period * rule.getInterval();
+            LocalDate anchor = switch (rule.getFrequency()) {
+                case DAILY -> first.toLocalDate().plusDays(step);
+                case WEEKLY -> first.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).plusWeeks(step);
+                case MONTHLY -> first.toLocalDate().plusMonths(step);
+            };
+            if (anchor.isAfter(until)) {
+                break;
+            }
+            if (period == maxPeriods) {
+                throw new InvalidDataException("The recurrence produces too few occurrences within " + maxPeriods + " periods");
+            }
+            for (LocalDate date : occurrencesIn(anchor, rule.getFrequency(), weekdays)) {
+                if (date.isBefore(first.toLocalDate()) || date.isAfter(until) || dates.size() == limit) continue;
+                dates.add(date);
+                if (dates.size() > maxOccurrences) {
+                    throw new InvalidDataException("A series can have at most " + maxOccurrences + " occurrences");
+                }
+            }
+        }
+        return dates.stream().map(date -> date.atTime(first.toLocalTime())).toList();
+    }
+
+    private List<LocalDate> occurrencesIn(LocalDate anchor, RecurrenceRule.Frequency frequency, Set<DayOfWeek> weekdays) {
+        return switch (frequency) {
+            case DAILY -> weekdays.contains(anchor.getDayOfWeek()) ? List.of(anchor) : List.of();
+            // anchor is the Monday of the week; EnumSet iterates Monday to Sunday
+            case WEEKLY -> weekdays.stream().map(day -> anchor.plusDays(day.getValue() - 1L)).toList();
+            case MONTHLY -> List.of(anchor.with(TemporalAdjusters.nextOrSame(firstListedFrom(anchor.getDayOfWeek(), weekdays))));
+        };
+    }
+
+    private DayOfWeek firstListedFrom(DayOfWeek day, Set<DayOfWeek> weekdays) {
+        for (int i = 0; i < 7; i++) {
+            if (weekdays.contains(day.plus(i))) {
+                return day.plus(i);
+            }
+        }
+        return day;
+    }
+}
@@ -0,0 +1,64 @@
+package com.navident.clinic.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Occupancy of one dentist-day in 5-minute slots (288 bits, five longs). Not thread-safe: filled while it is
+// loaded and only read once cached.
+public final class SlotBitmap {
+
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private final BitSet occupied = new BitSet(SLOTS_PER_DAY);
+
+    public void occupy(int from, int count) {
+        occupied.set(from, Math.min(from + count, SLOTS_PER_DAY));
+    }
+
+    // First slot s in [from, to - count] with count free slots after it, or -1
+    public int firstFree(int from, int to, int count) {
+        int start = occupied.nextClearBit(from);
+        while (start + count <= to) {
+            int busy = occupied.nextSetBit(start);
+            if (busy < 0 || busy >= start + count) {
+                return start;
+            }
+            start = occupied.nextClearBit(busy);
+        }
+        return -1;
+    }
+
+    // Maximal free runs inside [from, to) at least minCount slots long, as {start, end} pairs
+    public List<int[]> freeRuns(int from, int to, int minCount) {
+        List<int[]> runs = new ArrayList<>();
+        int start = occupied.nextClearBit(from);
+        while (start < to) {
+            int busy = occupied.nextSetBit(start);
+            int end = busy < 0 || busy > to ? to : busy;
+            if (end - start >= minCount) {
+                runs.add(new int[]{start, end});
+            }
+            if (busy < 0 || busy >= to) break;
+            start = occupied.nextClearBit(busy);
+        }
+        return runs;
+    }
+
+    public static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    // Rounded up so a booking ending mid-slot still blocks that slot
+    public static int slotCount(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    // "HH:mm", with the end of the last slot shown as 24:00
+    public static String label(int slot) {
+        int minutes = slot * SLOT_MINUTES;
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+}
@@ -0,0 +1,61 @@
+package com.navident.clinic.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free token bucket: state is swapped atomically, so concurrent callers never block each other
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(int capacity, int refillTokens, long refillPeriodNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) refillTokens / refillPeriodNanos;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    public boolean tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double available = refilled(current, now);
+            if (available < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1, now))) {
+                return true;
+            }
+        }
+    }
+
+    public void refund() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            State next = new State(Math.min(capacity, refilled(current, now) + 1), now);
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    public long nanosUntilAvailable() {
+        double missing = 1 - refilled(state.get(), System.nanoTime());
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+    }
+
+    private double refilled(State s, long now) {
+        return Math.min(capacity, s.tokens + (now - s.timestamp) * tokensPerNano);
+    }
+
+    private static final class State {
+        final double tokens;
+        final long timestamp;
+
+        State(double tokens, long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.navident.clinic.security;
+
+import com.navident.clinic.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoginGuardTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AuthenticationManager authenticationManager;
+    private LoginGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        authenticationManager = mock(AuthenticationManager.class);
+        guard = new LoginGuard(authenticationManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(guard, "threads", 1);
+        ReflectionTestUtils.setField(guard, "queueCapacity", 10);
+        ReflectionTestUtils.setField(guard, "timeoutMs", 50L);
+        ReflectionTestUtils.setField(guard, "busyRetryAfterSeconds", 1L);
+        ReflectionTestUtils.setField(guard, "usernameAttempts", 2);
+        ReflectionTestUtils.setField(guard, "ipAttempts", 2);
+        ReflectionTestUtils.setField(guard, "refillPeriodSeconds", 60L);
+        guard.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        guard.shutdown();
+    }
+
+    @Test
+    void timeoutsDoNotCountAgainstTheLimits() {
+        when(authenticationManager.authenticate(any())).thenAnswer(inv -> {
+            release.await();
+            return null;
+        });
+
+        // More timeouts than either bucket holds; each one is refunded, so none turns into a rate limit
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.authenticate("alice", "secret", "10.0.0.1"))
+                    .isInstanceOf(ServiceBusyException.class);
+        }
+    }
+
+    @Test
+    void succeedsWhenVerifiedInTime() {
+        UsernamePasswordAuthenticationToken ok = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+        when(authenticationManager.authenticate(any())).thenReturn(ok);
+
+        for (int i = 0; i < 4; i++) {
+            guard.authenticate("alice", "secret", "10.0.0.1");
+        }
+        verify(authenticationManager, times(4)).authenticate(any());
+    }
+}
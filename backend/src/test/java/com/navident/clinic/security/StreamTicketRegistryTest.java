@@ -0,0 +1,33 @@
+package com.navident.clinic.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamTicketRegistryTest {
+
+    private StreamTicketRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StreamTicketRegistry();
+        ReflectionTestUtils.setField(registry, "ttlSeconds", 30L);
+        registry.init();
+    }
+
+    @Test
+    void ticketIsRedeemedOnce() {
+        String ticket = registry.issue("alice");
+
+        assertThat(registry.redeem(ticket)).isEqualTo("alice");
+        assertThat(registry.redeem(ticket)).isNull();
+    }
+
+    @Test
+    void ticketsAreDistinctAndUnknownOnesFail() {
+        assertThat(registry.issue("alice")).isNotEqualTo(registry.issue("alice"));
+        assertThat(registry.redeem("not-a-ticket")).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.model.ConsultantDentist;
+import com.navident.clinic.model.dto.FreeSlotDto;
+import com.navident.clinic.repository.AppointmentRepository;
+import com.navident.clinic.repository.DentistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+class AvailabilityServiceImplTest {
+
+    // Not today, so the whole working day is bookable
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private AppointmentRepository appointmentRepo;
+    private AvailabilityServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepo = mock(AppointmentRepository.class);
+        DentistRepository dentistRepo = mock(DentistRepository.class);
+        when(dentistRepo.findById("d1")).thenReturn(Optional.of(
+                ConsultantDentist.builder().id("d1").firstName("Ana").lastName("Lee").build()));
+        service = new AvailabilityServiceImpl(appointmentRepo, dentistRepo, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "defaultDurationMinutes", 30);
+        ReflectionTestUtils.setField(service, "dayStart", "09:00");
+        ReflectionTestUtils.setField(service, "dayEnd", "18:00");
+        ReflectionTestUtils.setField(service, "searchDays", 30);
+        ReflectionTestUtils.setField(service, "maxCachedDays", 100L);
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 60L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void oneDaySearchSeesThatDaysBookings() {
+        when(appointmentRepo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(appointment("a", "10:00")));
+
+        List<FreeSlotDto> free = service.findFreeSlots("d1", DAY, DAY, 30);
+
+        assertThat(free).extracting(FreeSlotDto::getStartTime, FreeSlotDto::getEndTime)
+                .containsExactly(tuple("09:00", "10:00"), tuple("10:30", "18:00"));
+    }
+
+    @Test
+    void usesRealDurations() {
+        Appointment longVisit = appointment("a", "10:00");
+        longVisit.setDurationMinutes(90);
+        when(appointmentRepo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(longVisit));
+
+        assertThat(service.findFreeSlots("d1", DAY, DAY, 30)).extracting(FreeSlotDto::getStartTime)
+                .containsExactly("09:00", "11:30");
+    }
+
+    @Test
+    void evictDuringLoadIsNotOverwrittenByTheLoad() {
+        Appointment booked = appointment("a", "10:00");
+        when(appointmentRepo.findByDentistIdAndDateRange("d1", DAY, DAY))
+                .thenAnswer(invocation -> {
+                    // Cancelled after the query read it
+                    service.evict(booked);
+                    return List.of(booked);
+                })
+                .thenReturn(List.of());
+
+        service.findFreeSlots("d1", DAY, DAY, 30);
+
+        assertThat(service.findFreeSlots("d1", DAY, DAY, 30)).extracting(FreeSlotDto::getStartTime).containsExactly("09:00");
+        verify(appointmentRepo, times(2)).findByDentistIdAndDateRange("d1", DAY, DAY);
+    }
+
+    @Test
+    void cachedDaysAreNotReloaded() {
+        when(appointmentRepo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of());
+
+        service.findFreeSlots("d1", DAY, DAY, 30);
+        service.findFreeSlots("d1", DAY, DAY, 60);
+
+        verify(appointmentRepo, times(1)).findByDentistIdAndDateRange("d1", DAY, DAY);
+    }
+
+    private static Appointment appointment(String id, String time) {
+        return Appointment.builder()
+                .id(id)
+                .dentistId("d1")
+                .appointmentDate(DAY)
+                .appointmentTime(time)
+                .status("SCHEDULED")
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.exception.AppointmentConflictException;
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConflictDetectionServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private AppointmentRepository repo;
+    private ConflictDetectionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AppointmentRepository.class);
+        service = new ConflictDetectionServiceImpl(repo, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "defaultDurationMinutes", 30);
+        ReflectionTestUtils.setField(service, "maxCachedDays", 100L);
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 60L);
+        service.init();
+    }
+
+    @Test
+    void rejectsOverlapWithStoredBookingOnColdCache() {
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(appointment("stored", "d1", null, 10, 0, 30)));
+        AtomicInteger writes = new AtomicInteger();
+
+        assertThatThrownBy(() -> service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 10, 15, 30)),
+                current -> writes.incrementAndGet()))
+                .isInstanceOf(AppointmentConflictException.class)
+                .hasMessageContaining("stored");
+        assertThat(writes).hasValue(0);
+    }
+
+    @Test
+    void acceptsAdjacentBookingAndRemembersIt() {
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(appointment("stored", "d1", null, 10, 0, 30)));
+
+        Appointment next = appointment(null, "d1", null, 10, 30, 30);
+        service.applyChanges(List.of(), List.of(next), current -> {
+            next.setId("new");
+            return next;
+        });
+
+        assertThatThrownBy(() -> service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 10, 45, 15)), current -> null))
+                .isInstanceOf(AppointmentConflictException.class)
+                .hasMessageContaining("new");
+    }
+
+    @Test
+    void chairIsSharedAcrossDentists() {
+        when(repo.findByChairIdAndDateRange("c1", DAY, DAY)).thenReturn(List.of(appointment("stored", "d1", "c1", 9, 0, 60)));
+
+        assertThatThrownBy(() -> service.applyChanges(List.of(), List.of(appointment(null, "d2", "c1", 9, 30, 30)), current -> null))
+                .isInstanceOf(AppointmentConflictException.class)
+                .hasMessageContaining("Chair c1");
+    }
+
+    @Test
+    void batchMaySwapTimesButNotCollideWithItself() {
+        Appointment a = appointment("a", "d1", null, 9, 0, 30);
+        Appointment b = appointment("b", "d1", null, 9, 30, 30);
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(a, b));
+
+        List<Appointment> swapped = List.of(appointment("a", "d1", null, 9, 30, 30), appointment("b", "d1", null, 9, 0, 30));
+        service.applyChanges(List.of(a, b), swapped, current -> null);
+
+        List<Appointment> colliding = List.of(appointment("a", "d1", null, 11, 0, 30), appointment("b", "d1", null, 11, 0, 30));
+        assertThatThrownBy(() -> service.applyChanges(swapped, colliding, current -> null))
+                .isInstanceOf(AppointmentConflictException.class);
+    }
+
+    @Test
+    void conflictLeavesScheduleUnchanged() {
+        Appointment a = appointment("a", "d1", null, 9, 0, 30);
+        Appointment b = appointment("b", "d1", null, 10, 0, 30);
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(a, b));
+
+        assertThatThrownBy(() -> service.applyChanges(List.of(a), List.of(appointment("a", "d1", null, 10, 0, 30)), current -> null))
+                .isInstanceOf(AppointmentConflictException.class);
+
+        // a still holds 09:00
+        assertThatThrownBy(() -> service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 9, 0, 30)), current -> null))
+                .isInstanceOf(AppointmentConflictException.class);
+        verify(repo, times(1)).findByDentistIdAndDateRange("d1", DAY, DAY);
+    }
+
+    @Test
+    void failedWriteReloadsTouchedDaysFromMongo() {
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 9, 0, 30)), current -> {
+            throw new IllegalStateException("write failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 9, 0, 30)), current -> null);
+        verify(repo, times(2)).findByDentistIdAndDateRange("d1", DAY, DAY);
+    }
+
+    @Test
+    void seriesLoadsEachResourceWithOneRangeQuery() {
+        LocalDate last = DAY.plusWeeks(2);
+        Appointment stored = appointment("stored", "d9", null, 9, 0, 30);
+        stored.setAppointmentDate(DAY.plusWeeks(1));
+        stored.setStartAt(DAY.plusWeeks(1).atTime(9, 0));
+        when(repo.findByDentistIdAndDateRange("d1", DAY, last)).thenReturn(List.of(stored));
+
+        List<Appointment> series = List.of(
+                weekly(0, "d1", "c1"), weekly(1, "d1", "c1"), weekly(2, "d1", "c1"));
+
+        assertThatThrownBy(() -> service.applyChanges(List.of(), series, current -> null))
+                .isInstanceOf(AppointmentConflictException.class)
+                .hasMessageContaining(DAY.plusWeeks(1).toString());
+        verify(repo).findByDentistIdAndDateRange("d1", DAY, last);
+        verify(repo).findByChairIdAndDateRange("c1", DAY, last);
+        verifyNoMoreInteractions(repo);
+
+        // Empty days were seeded too, so a later single booking needs no further reads
+        service.applyChanges(List.of(), List.of(weekly(2, "d1", "c1")), current -> null);
+        verifyNoMoreInteractions(repo);
+    }
+
+    @Test
+    void staleRemovalIsReplacedByTheStoredState() {
+        Appointment a = appointment("a", "d1", null, 9, 0, 30);
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(a));
+        Appointment movedTo10 = appointment("a", "d1", null, 10, 0, 30);
+        when(repo.findAllById(List.of("a"))).thenReturn(List.of(a), List.of(movedTo10));
+        service.applyChanges(List.of(a), List.of(movedTo10), current -> null);
+
+        // A second update read `a` before the first one moved it; it still removes the 10:00 booking
+        List<Appointment> seen = new ArrayList<>();
+        service.applyChanges(List.of(a), List.of(appointment("a", "d1", null, 11, 0, 30)), current -> {
+            seen.addAll(current);
+            return null;
+        });
+
+        assertThat(seen).containsExactly(movedTo10);
+        service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 10, 0, 30)), current -> null);
+        assertThatThrownBy(() -> service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 11, 0, 30)), current -> null))
+                .isInstanceOf(AppointmentConflictException.class);
+    }
+
+    @Test
+    void removalMovedToAnotherDayTakesThatDaysLock() {
+        Appointment stale = appointment("a", "d1", null, 9, 0, 30);
+        Appointment moved = appointment("a", "d1", null, 9, 0, 30);
+        moved.setAppointmentDate(DAY.plusDays(1));
+        moved.setStartAt(DAY.plusDays(1).atTime(9, 0));
+        when(repo.findByDentistIdAndDateRange("d1", DAY.plusDays(1), DAY.plusDays(1))).thenReturn(List.of(moved));
+        when(repo.findAllById(List.of("a"))).thenReturn(List.of(moved));
+
+        service.applyChanges(List.of(stale), List.of(appointment("a", "d1", null, 12, 0, 30)), current -> null);
+
+        // The next day's 09:00 booking was removed, not left behind as a phantom
+        Appointment other = appointment(null, "d1", null, 9, 0, 30);
+        other.setAppointmentDate(DAY.plusDays(1));
+        other.setStartAt(DAY.plusDays(1).atTime(9, 0));
+        service.applyChanges(List.of(), List.of(other), current -> null);
+    }
+
+    @Test
+    void cancelledAppointmentsDoNotBlock() {
+        Appointment cancelled = appointment("x", "d1", null, 9, 0, 30);
+        cancelled.setStatus("CANCELLED");
+        when(repo.findByDentistIdAndDateRange("d1", DAY, DAY)).thenReturn(List.of(cancelled));
+
+        service.applyChanges(List.of(), List.of(appointment(null, "d1", null, 9, 0, 30)), current -> null);
+    }
+
+    private static Appointment weekly(int week, String dentistId, String chairId) {
+        Appointment appointment = appointment(null, dentistId, chairId, 9, 0, 30);
+        appointment.setAppointmentDate(DAY.plusWeeks(week));
+        appointment.setStartAt(DAY.plusWeeks(week).atTime(9, 0));
+        return appointment;
+    }
+
+    private static Appointment appointment(String id, String dentistId, String chairId, int hour, int minute, int duration) {
+        LocalDateTime start = DAY.atTime(hour, minute);
+        return Appointment.builder()
+                .id(id)
+                .dentistId(dentistId)
+                .chairId(chairId)
+                .appointmentDate(DAY)
+                .appointmentTime(String.format("%02d:%02d", hour, minute))
+                .startAt(start)
+                .durationMinutes(duration)
+                .status("SCHEDULED")
+                .build();
+    }
+}
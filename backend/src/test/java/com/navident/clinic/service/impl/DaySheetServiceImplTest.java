@@ -0,0 +1,122 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.model.Appointment;
+import com.navident.clinic.repository.AppointmentRepository;
+import com.navident.clinic.service.DaySheetService.DaySheet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DaySheetServiceImplTest {
+
+    private final LocalDate today = LocalDate.now();
+
+    private AppointmentRepository repo;
+    private DaySheetServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AppointmentRepository.class);
+        service = new DaySheetServiceImpl(repo);
+        ReflectionTestUtils.setField(service, "horizonDays", 7);
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 10L);
+    }
+
+    @Test
+    void singleDayIsLoadedWithInclusiveRange() {
+        when(repo.findByDateRange(today, today)).thenReturn(List.of(appointment("a", today)));
+
+        DaySheet sheet = service.getDay(today);
+
+        assertThat(sheet.getAppointments()).extracting(Appointment::getId).containsExactly("a");
+        assertThat(sheet.getEtag()).isNotNull();
+        service.getDay(today);
+        verify(repo, times(1)).findByDateRange(today, today);
+    }
+
+    @Test
+    void daysOutsideTheWindowAreNotCached() {
+        LocalDate past = today.minusDays(3);
+        when(repo.findByDateRange(past, past)).thenReturn(List.of(appointment("old", past)));
+
+        DaySheet sheet = service.getDay(past);
+
+        assertThat(sheet.getAppointments()).extracting(Appointment::getId).containsExactly("old");
+        assertThat(sheet.getEtag()).isNull();
+    }
+
+    @Test
+    void prewarmCoversTodayAndTheLastDay() {
+        LocalDate last = today.plusDays(6);
+        when(repo.findByDateRange(today, last)).thenReturn(List.of(appointment("first", today), appointment("last", last)));
+
+        service.prewarm();
+
+        assertThat(service.getDay(today).getAppointments()).extracting(Appointment::getId).containsExactly("first");
+        assertThat(service.getDay(last).getAppointments()).extracting(Appointment::getId).containsExactly("last");
+        verify(repo, never()).findByDateRange(today, today);
+    }
+
+    @Test
+    void writeDuringReloadIsNotOverwritten() {
+        Appointment existing = appointment("a", today);
+        Appointment written = appointment("new", today);
+        when(repo.findByDateRange(today, today))
+                .thenReturn(List.of(existing))
+                .thenAnswer(invocation -> {
+                    // The write lands after the query read the collection, so the reloaded list misses it
+                    service.apply(null, written);
+                    return List.of(existing);
+                });
+        service.getDay(today);
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 0L);
+
+        DaySheet sheet = service.getDay(today);
+
+        assertThat(sheet.getAppointments()).extracting(Appointment::getId).containsExactlyInAnyOrder("a", "new");
+    }
+
+    @Test
+    void writerIsNotBlockedByUpcomingReload() {
+        Appointment existing = appointment("a", today);
+        Appointment written = appointment("new", today);
+        when(repo.findByAppointmentDateGreaterThanEqualAndStatusIn(eq(today), anyList()))
+                .thenReturn(List.of(existing))
+                .thenAnswer(invocation -> {
+                    // Another request thread writes while the query runs; it must not wait for the query
+                    Thread writer = new Thread(() -> service.apply(null, written));
+                    writer.start();
+                    writer.join(5_000);
+                    assertThat(writer.isAlive()).isFalse();
+                    return List.of(existing);
+                });
+        service.getUpcoming();
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 0L);
+
+        DaySheet sheet = service.getUpcoming();
+
+        assertThat(sheet.getAppointments()).extracting(Appointment::getId).containsExactlyInAnyOrder("a", "new");
+    }
+
+    @Test
+    void unchangedReloadKeepsEtag() {
+        when(repo.findByDateRange(today, today)).thenReturn(List.of(appointment("a", today)));
+        String etag = service.getDay(today).getEtag();
+
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 0L);
+
+        assertThat(service.getDay(today).getEtag()).isEqualTo(etag);
+    }
+
+    private static Appointment appointment(String id, LocalDate date) {
+        return Appointment.builder().id(id).appointmentDate(date).appointmentTime("09:00").status("SCHEDULED").build();
+    }
+}
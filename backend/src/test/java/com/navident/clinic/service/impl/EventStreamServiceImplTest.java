@@ -0,0 +1,50 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventStreamServiceImplTest {
+
+    private EventStreamServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EventStreamServiceImpl();
+        ReflectionTestUtils.setField(service, "replaySize", 10);
+        ReflectionTestUtils.setField(service, "bufferSize", 10);
+        ReflectionTestUtils.setField(service, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "dispatchThreads", 1);
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 5L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void subscriberCapIsEnforced() {
+        service.subscribe("clinic", null);
+        service.subscribe("dentist:d1", null);
+
+        assertThatThrownBy(() -> service.subscribe("clinic", null)).isInstanceOf(ServiceBusyException.class);
+    }
+
+    @Test
+    void idsCarryTheBootId() {
+        String bootId = (String) ReflectionTestUtils.getField(service, "bootId");
+
+        assertThat((long) ReflectionTestUtils.invokeMethod(service, "sequenceOf", bootId + "-7")).isEqualTo(7);
+        assertThat((long) ReflectionTestUtils.invokeMethod(service, "sequenceOf", "lx0abc-7")).isEqualTo(-1);
+        assertThat((long) ReflectionTestUtils.invokeMethod(service, "sequenceOf", "7")).isEqualTo(-1);
+        assertThat((long) ReflectionTestUtils.invokeMethod(service, "sequenceOf", bootId + "-x")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.navident.clinic.service.impl;
+
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.model.ClinicFinance;
+import com.navident.clinic.repository.FinanceDailyRollupRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FinanceRollupServiceImplTest {
+
+    private MongoTemplate mongoTemplate;
+    private FinanceRollupServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new FinanceRollupServiceImpl(mock(FinanceDailyRollupRepository.class), mongoTemplate);
+        ReflectionTestUtils.setField(service, "maxCachedYears", 4);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void rejectsYearsOutsideTheSupportedRange() {
+        assertThatThrownBy(() -> service.getMonthlyTrend(1000000000)).isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> service.getMonthlyTrend(-5)).isInstanceOf(InvalidDataException.class);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void cachedYearsAreNotReloaded() {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class))).thenReturn(revenueInMarch("100"));
+
+        service.getMonthlyTrend(2024);
+        Map<String, Object> trend = service.getMonthlyTrend(2024);
+
+        assertThat((List<?>) trend.get("revenue")).element(2).isEqualTo(new BigDecimal("100"));
+        verify(mongoTemplate, times(1)).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+
+    @Test
+    void removalDuringLoadIsNotCached() {
+        ClinicFinance txn = ClinicFinance.builder()
+                .transactionDate(LocalDate.of(2024, 3, 5)).category("REVENUE").type("PAYMENT").build();
+        // The first aggregation is the trend load; a removal lands while it runs
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenAnswer(inv -> {
+                    service.recordRemoval(txn);
+                    return revenueInMarch("100");
+                })
+                .thenReturn(new AggregationResults<>(List.of(), new Document()))
+                .thenReturn(revenueInMarch("60"));
+
+        service.getMonthlyTrend(2024);
+        Map<String, Object> trend = service.getMonthlyTrend(2024);
+
+        assertThat((List<?>) trend.get("revenue")).element(2).isEqualTo(new BigDecimal("60"));
+    }
+
+    private static AggregationResults<Document> revenueInMarch(String total) {
+        Document doc = new Document("_id", new Document("month", 3).append("category", "REVENUE"))
+                .append("total", new BigDecimal(total));
+        return new AggregationResults<>(List.of(doc), new Document());
+    }
+}
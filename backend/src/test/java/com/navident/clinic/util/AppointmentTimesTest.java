@@ -0,0 +1,58 @@
+package com.navident.clinic.util;
+
+import com.navident.clinic.model.Appointment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentTimesTest {
+
+    @Test
+    void parsesTwentyFourHourAndAmPmTimes() {
+        assertThat(AppointmentTimes.parseTime("9:05")).isEqualTo(LocalTime.of(9, 5));
+        assertThat(AppointmentTimes.parseTime(" 14:30 ")).isEqualTo(LocalTime.of(14, 30));
+        assertThat(AppointmentTimes.parseTime("2:30 pm")).isEqualTo(LocalTime.of(14, 30));
+        assertThat(AppointmentTimes.parseTime("noon")).isNull();
+        assertThat(AppointmentTimes.parseTime(null)).isNull();
+    }
+
+    @Test
+    void startAtWinsOverAppointmentTime() {
+        Appointment appointment = Appointment.builder()
+                .startAt(LocalDateTime.of(2026, 3, 2, 10, 15))
+                .appointmentTime("09:00")
+                .build();
+
+        assertThat(AppointmentTimes.startMinute(appointment)).isEqualTo(615);
+    }
+
+    @Test
+    void legacyRowsUseAppointmentTime() {
+        Appointment appointment = Appointment.builder().appointmentTime("09:00").build();
+        Appointment unreadable = Appointment.builder().appointmentTime("morning").build();
+
+        assertThat(AppointmentTimes.startMinute(appointment)).isEqualTo(540);
+        assertThat(AppointmentTimes.startMinute(unreadable)).isEqualTo(-1);
+    }
+
+    @Test
+    void durationFallsBackToDefault() {
+        assertThat(AppointmentTimes.durationMinutes(Appointment.builder().durationMinutes(45).build(), 30)).isEqualTo(45);
+        assertThat(AppointmentTimes.durationMinutes(Appointment.builder().build(), 30)).isEqualTo(30);
+        assertThat(AppointmentTimes.durationMinutes(Appointment.builder().durationMinutes(0).build(), 30)).isEqualTo(30);
+    }
+
+    @Test
+    void cancelledOrUnscheduledAppointmentsDoNotOccupy() {
+        LocalDate date = LocalDate.of(2026, 3, 2);
+        assertThat(AppointmentTimes.occupies(Appointment.builder().appointmentDate(date).appointmentTime("09:00").build())).isTrue();
+        assertThat(AppointmentTimes.occupies(Appointment.builder().appointmentDate(date).appointmentTime("09:00")
+                .status("cancelled").build())).isFalse();
+        assertThat(AppointmentTimes.occupies(Appointment.builder().appointmentTime("09:00").build())).isFalse();
+        assertThat(AppointmentTimes.occupies(Appointment.builder().appointmentDate(date).build())).isFalse();
+    }
+}
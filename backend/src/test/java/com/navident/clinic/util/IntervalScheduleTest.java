@@ -0,0 +1,62 @@
+package com.navident.clinic.util;
+
+import com.navident.clinic.util.IntervalSchedule.Interval;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalScheduleTest {
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalSchedule schedule = new IntervalSchedule();
+        schedule.add("a", 600, 630);
+
+        assertThat(schedule.overlapping(630, 660)).isEmpty();
+        assertThat(schedule.overlapping(570, 600)).isEmpty();
+    }
+
+    @Test
+    void findsEveryOverlap() {
+        IntervalSchedule schedule = new IntervalSchedule();
+        schedule.add("a", 540, 600);
+        schedule.add("b", 600, 660);
+        schedule.add("c", 700, 720);
+
+        List<Interval> hits = schedule.overlapping(590, 610);
+
+        assertThat(hits).extracting(Interval::getAppointmentId).containsExactly("a", "b");
+    }
+
+    @Test
+    void longBookingStartingEarlierIsFound() {
+        IntervalSchedule schedule = new IntervalSchedule();
+        schedule.add("short", 500, 510);
+        schedule.add("long", 480, 720);
+
+        assertThat(schedule.overlapping(700, 710)).extracting(Interval::getAppointmentId).containsExactly("long");
+    }
+
+    @Test
+    void equalStartsCoexistAndAreRemovedIndividually() {
+        IntervalSchedule schedule = new IntervalSchedule();
+        Interval first = schedule.add("a", 600, 630);
+        schedule.add("b", 600, 630);
+
+        schedule.remove(first);
+
+        assertThat(schedule.overlapping(600, 601)).extracting(Interval::getAppointmentId).containsExactly("b");
+    }
+
+    @Test
+    void findMatchesOnIdAndStart() {
+        IntervalSchedule schedule = new IntervalSchedule();
+        Interval interval = schedule.add("a", 600, 630);
+
+        assertThat(schedule.find("a", 600)).isSameAs(interval);
+        assertThat(schedule.find("a", 605)).isNull();
+        assertThat(schedule.find("b", 600)).isNull();
+    }
+}
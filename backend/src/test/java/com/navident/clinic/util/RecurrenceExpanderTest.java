@@ -0,0 +1,112 @@
+package com.navident.clinic.util;
+
+import com.navident.clinic.exception.InvalidDataException;
+import com.navident.clinic.model.dto.RecurrenceRule;
+import com.navident.clinic.model.dto.RecurrenceRule.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.time.DayOfWeek.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class RecurrenceExpanderTest {
+
+    private static final int MAX = 200;
+
+    @Test
+    void monthlyFromMonthEndDoesNotDrift() {
+        LocalDateTime first = LocalDateTime.of(2027, 1, 31, 9, 0);
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(first, rule(Frequency.MONTHLY, 1, 4, null), MAX);
+
+        assertThat(starts).extracting(LocalDateTime::toLocalDate).containsExactly(
+                LocalDate.of(2027, 1, 31), LocalDate.of(2027, 2, 28), LocalDate.of(2027, 3, 31), LocalDate.of(2027, 4, 30));
+        assertThat(starts).allMatch(start -> start.getHour() == 9);
+    }
+
+    @Test
+    void weeklyByDayStartsFromTheFirstDate() {
+        // A Wednesday; the Monday of that week is before the first occurrence and is skipped
+        LocalDateTime first = LocalDateTime.of(2026, 3, 4, 14, 30);
+        RecurrenceRule rule = rule(Frequency.WEEKLY, 2, 5, null);
+        rule.setWeekdays(List.of(FRIDAY, MONDAY, WEDNESDAY));
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(first, rule, MAX);
+
+        assertThat(starts).extracting(LocalDateTime::toLocalDate).containsExactly(
+                LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 6),
+                LocalDate.of(2026, 3, 16), LocalDate.of(2026, 3, 18), LocalDate.of(2026, 3, 20));
+    }
+
+    @Test
+    void weeklyWithoutByDayUsesTheFirstWeekday() {
+        LocalDateTime first = LocalDateTime.of(2026, 3, 4, 14, 30);
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(first, rule(Frequency.WEEKLY, 1, 3, null), MAX);
+
+        assertThat(starts).extracting(LocalDateTime::getDayOfWeek).containsOnly(DayOfWeek.WEDNESDAY);
+        assertThat(starts).hasSize(3);
+    }
+
+    @Test
+    void countAndUntilStopAtWhicheverComesFirst() {
+        LocalDateTime first = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+        assertThat(RecurrenceExpander.expand(first, rule(Frequency.DAILY, 1, 10, LocalDate.of(2026, 3, 4)), MAX))
+                .hasSize(3);
+        assertThat(RecurrenceExpander.expand(first, rule(Frequency.DAILY, 1, 2, LocalDate.of(2026, 3, 4)), MAX))
+                .hasSize(2);
+    }
+
+    @Test
+    void dailyWeekdayFilter() {
+        // Monday to the next Monday, weekends dropped
+        RecurrenceRule rule = rule(Frequency.DAILY, 1, null, LocalDate.of(2026, 3, 9));
+        rule.setWeekdays(List.of(MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY));
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(LocalDateTime.of(2026, 3, 2, 8, 0), rule, MAX);
+
+        assertThat(starts).hasSize(6).noneMatch(start -> start.getDayOfWeek().getValue() > 5);
+    }
+
+    @Test
+    void dailyStepThatNeverReachesAListedWeekdayIsRejected() {
+        // Every 7 days from a Monday is always a Monday
+        RecurrenceRule rule = rule(Frequency.DAILY, 7, 3, null);
+        rule.setWeekdays(List.of(TUESDAY));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () ->
+                assertThatThrownBy(() -> RecurrenceExpander.expand(LocalDateTime.of(2026, 3, 2, 8, 0), rule, MAX))
+                        .isInstanceOf(InvalidDataException.class));
+    }
+
+    @Test
+    void tooManyOccurrencesAreRejected() {
+        assertThatThrownBy(() -> RecurrenceExpander.expand(LocalDateTime.of(2026, 3, 2, 8, 0),
+                rule(Frequency.DAILY, 1, MAX + 1, null), MAX))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void untilBeforeFirstIsRejected() {
+        assertThatThrownBy(() -> RecurrenceExpander.expand(LocalDateTime.of(2026, 3, 2, 8, 0),
+                rule(Frequency.DAILY, 1, null, LocalDate.of(2026, 3, 1)), MAX))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    private static RecurrenceRule rule(Frequency frequency, int interval, Integer count, LocalDate until) {
+        RecurrenceRule rule = new RecurrenceRule();
+        rule.setFrequency(frequency);
+        rule.setInterval(interval);
+        rule.setCount(count);
+        rule.setUntil(until);
+        return rule;
+    }
+}
@@ -0,0 +1,51 @@
+package com.navident.clinic.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotBitmapTest {
+
+    @Test
+    void slotHelpers() {
+        assertThat(SlotBitmap.slotOf(LocalTime.of(9, 0))).isEqualTo(108);
+        assertThat(SlotBitmap.slotOf(LocalTime.of(9, 7))).isEqualTo(109);
+        assertThat(SlotBitmap.slotCount(30)).isEqualTo(6);
+        assertThat(SlotBitmap.slotCount(31)).isEqualTo(7);
+        assertThat(SlotBitmap.label(108)).isEqualTo("09:00");
+        assertThat(SlotBitmap.label(SlotBitmap.SLOTS_PER_DAY)).isEqualTo("24:00");
+    }
+
+    @Test
+    void firstFreeSkipsOccupiedRanges() {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.occupy(108, 6);
+        bitmap.occupy(116, 2);
+
+        assertThat(bitmap.firstFree(108, 216, 2)).isEqualTo(114);
+        assertThat(bitmap.firstFree(108, 216, 3)).isEqualTo(118);
+        assertThat(bitmap.firstFree(108, 120, 3)).isEqualTo(-1);
+    }
+
+    @Test
+    void freeRunsAreMaximalAndLongEnough() {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.occupy(110, 2);
+        bitmap.occupy(113, 1);
+
+        assertThat(bitmap.freeRuns(108, 120, 2))
+                .containsExactly(new int[]{108, 110}, new int[]{114, 120});
+    }
+
+    @Test
+    void occupyIsClampedToTheDay() {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.occupy(SlotBitmap.SLOTS_PER_DAY - 1, 10);
+
+        assertThat(bitmap.firstFree(SlotBitmap.SLOTS_PER_DAY - 2, SlotBitmap.SLOTS_PER_DAY, 1))
+                .isEqualTo(SlotBitmap.SLOTS_PER_DAY - 2);
+        assertThat(bitmap.freeRuns(SlotBitmap.SLOTS_PER_DAY - 1, SlotBitmap.SLOTS_PER_DAY, 1)).isEmpty();
+    }
+}
@@ -72,7 +72,7 @@ const FinanceList = () => {
     setLoading(true);
     try {
       const response = await financeService.search(searchQuery);
-      setFinances(response.data || []);
+      setFinances(response.data.content || []);
     } catch (error) {
       console.error('Error searching finances:', error);
       toast.error('Search failed');
@@ -9,9 +9,7 @@ export const authService = {
     return api.post('/auth/signup', userData);
   },
   
-  refreshToken: (username) => {
-    return api.post('/auth/refresh', null, {
-      params: { username }
-    });
+  refreshToken: () => {
+    return api.post('/auth/refresh');
   }
 };
@@ -6,7 +6,7 @@ export const financeService = {
   create: (data) => api.post('/finance', data),
   update: (id, data) => api.put(`/finance/${id}`, data),
   delete: (id) => api.delete(`/finance/${id}`),
-  search: (query) => api.get('/finance/search', { params: { query } }),
+  search: (query, page = 0, size = 50) => api.get('/finance/search', { params: { query, page, size } }),
   exportExcel: (startDate, endDate) => api.get('/finance/export/excel', {
     params: { start: startDate, end: endDate },
     responseType: 'blob'